@@ -0,0 +1,38 @@
+package ru.kontur.courses.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import ru.kontur.courses.WordStatistics;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AddWordBenchmark {
+    private static final int WORDS = 10_000;
+
+    @Param
+    public Implementations implementation;
+
+    @Param({"distinct", "same", "zipf"})
+    public String workload;
+
+    private String[] words;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        words = Workloads.create(workload, WORDS, WORDS / 10);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(WORDS)
+    public WordStatistics addWord() {
+        var statistics = implementation.create();
+        for (var word : words)
+            statistics.addWord(word);
+        return statistics;
+    }
+}
@@ -0,0 +1,39 @@
+package ru.kontur.courses.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import ru.kontur.courses.WordCount;
+import ru.kontur.courses.WordStatistics;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GetStatisticsBenchmark {
+    @Param
+    public Implementations implementation;
+
+    @Param({"1000", "10000"})
+    public int vocabulary;
+
+    private WordStatistics statistics;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        statistics = implementation.create();
+        for (var word : Workloads.distinct(vocabulary))
+            statistics.addWord(word);
+        // Повторы дают слова с разной частотой и длинные серии равных частот
+        for (var word : Workloads.distinct(vocabulary / 10))
+            statistics.addWord(word);
+    }
+
+    @Benchmark
+    public List<WordCount> getStatistics() {
+        return statistics.getStatistics();
+    }
+}
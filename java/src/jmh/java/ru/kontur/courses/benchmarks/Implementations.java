@@ -0,0 +1,58 @@
+package ru.kontur.courses.benchmarks;
+
+import ru.kontur.courses.WordDictionary;
+import ru.kontur.courses.WordStatistics;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Все реализации для @Param implementation: референсная, альтернативные движки и все классы из donotopen.
+ * Пустой @Param у поля-перечисления JMH раскрывает во все константы, поэтому список задан только здесь.
+ * Константы названы по классам, чтобы в отчете и в -p implementation=... были привычные имена
+ */
+public enum Implementations {
+    WordStatisticImpl(ru.kontur.courses.WordStatisticImpl::new),
+    BucketWordStatistics(ru.kontur.courses.BucketWordStatistics::new),
+    CachingWordStatistics(() -> new ru.kontur.courses.CachingWordStatistics(new ru.kontur.courses.WordStatisticImpl())),
+    ConcurrentWordStatistics(ru.kontur.courses.ConcurrentWordStatistics::new),
+    DictionaryWordStatistics(() -> new ru.kontur.courses.DictionaryWordStatistics(new WordDictionary())),
+    OffHeapWordStatistics(ru.kontur.courses.OffHeapWordStatistics::new),
+    PackedWordStatistics(ru.kontur.courses.PackedWordStatistics::new),
+    PrefixWordStatistics(ru.kontur.courses.PrefixWordStatistics::new),
+    // Приближенный подсчет: на словаре больше емкости результаты не совпадают с остальными
+    SpaceSavingWordStatistics(() -> new ru.kontur.courses.SpaceSavingWordStatistics(1000)),
+    WindowedWordStatistics(() -> new ru.kontur.courses.WindowedWordStatistics(
+            Clock.systemUTC(), Duration.ofMinutes(1), 60)),
+    WordStatistics01(ru.kontur.courses.donotopen.WordStatistics01::new),
+    WordStatistics02(ru.kontur.courses.donotopen.WordStatistics02::new),
+    WordStatistics03(ru.kontur.courses.donotopen.WordStatistics03::new),
+    WordStatistics04(ru.kontur.courses.donotopen.WordStatistics04::new),
+    WordStatistics123(ru.kontur.courses.donotopen.WordStatistics123::new),
+    WordStatistics998(ru.kontur.courses.donotopen.WordStatistics998::new),
+    WordStatistics999(ru.kontur.courses.donotopen.WordStatistics999::new),
+    WordStatisticsC(ru.kontur.courses.donotopen.WordStatisticsC::new),
+    WordStatisticsCR(ru.kontur.courses.donotopen.WordStatisticsCR::new),
+    WordStatisticsE(ru.kontur.courses.donotopen.WordStatisticsE::new),
+    WordStatisticsE2(ru.kontur.courses.donotopen.WordStatisticsE2::new),
+    WordStatisticsE3(ru.kontur.courses.donotopen.WordStatisticsE3::new),
+    WordStatisticsE4(ru.kontur.courses.donotopen.WordStatisticsE4::new),
+    WordStatisticsEN1(ru.kontur.courses.donotopen.WordStatisticsEN1::new),
+    WordStatisticsEN2(ru.kontur.courses.donotopen.WordStatisticsEN2::new),
+    WordStatisticsL2(ru.kontur.courses.donotopen.WordStatisticsL2::new),
+    WordStatisticsL3(ru.kontur.courses.donotopen.WordStatisticsL3::new),
+    WordStatisticsL4(ru.kontur.courses.donotopen.WordStatisticsL4::new),
+    WordStatisticsQWE(ru.kontur.courses.donotopen.WordStatisticsQWE::new),
+    WordStatisticsSTA(ru.kontur.courses.donotopen.WordStatisticsSTA::new);
+
+    private final Supplier<WordStatistics> factory;
+
+    Implementations(Supplier<WordStatistics> factory) {
+        this.factory = factory;
+    }
+
+    WordStatistics create() {
+        return factory.get();
+    }
+}
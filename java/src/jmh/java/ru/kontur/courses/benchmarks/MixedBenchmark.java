@@ -0,0 +1,49 @@
+package ru.kontur.courses.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import ru.kontur.courses.WordStatistics;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Поток addWord по распределению Ципфа, в котором каждый readEvery-й вызов — getStatistics
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MixedBenchmark {
+    private static final int WORDS = 1 << 16;
+
+    @Param
+    public Implementations implementation;
+
+    @Param({"100", "10000"})
+    public int readEvery;
+
+    private String[] words;
+    private WordStatistics statistics;
+    private int position;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        words = Workloads.create("zipf", WORDS, 5000);
+    }
+
+    @Setup(Level.Iteration)
+    public void reset() {
+        statistics = implementation.create();
+        position = 0;
+    }
+
+    @Benchmark
+    public Object mixed() {
+        var word = words[position++ & (WORDS - 1)];
+        if (position % readEvery == 0)
+            return statistics.getStatistics();
+        statistics.addWord(word);
+        return statistics;
+    }
+}
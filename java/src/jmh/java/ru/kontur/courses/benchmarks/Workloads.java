@@ -0,0 +1,55 @@
+package ru.kontur.courses.benchmarks;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Потоки слов для бенчмарков; генерация детерминирована
+ */
+final class Workloads {
+    private Workloads() {
+    }
+
+    static String[] create(String workload, int size, int vocabulary) {
+        return switch (workload) {
+            case "distinct" -> distinct(size);
+            case "same" -> same(size);
+            case "zipf" -> zipf(size, vocabulary, 1.0, new Random(42));
+            default -> throw new IllegalArgumentException("Неизвестная нагрузка " + workload);
+        };
+    }
+
+    static String[] distinct(int size) {
+        var words = new String[size];
+        for (int i = 0; i < size; i++)
+            words[i] = "w" + i;
+        return words;
+    }
+
+    static String[] same(int size) {
+        var words = new String[size];
+        for (int i = 0; i < size; i++)
+            words[i] = new String("SameWord");
+        return words;
+    }
+
+    /**
+     * Распределение Ципфа: i-е по популярности слово встречается с вероятностью ~ 1 / i^exponent
+     */
+    static String[] zipf(int size, int vocabulary, double exponent, Random random) {
+        var cumulative = new double[vocabulary];
+        double sum = 0;
+        for (int i = 0; i < vocabulary; i++) {
+            sum += 1 / Math.pow(i + 1, exponent);
+            cumulative[i] = sum;
+        }
+
+        var words = new String[size];
+        for (int i = 0; i < size; i++) {
+            int rank = Arrays.binarySearch(cumulative, random.nextDouble() * sum);
+            if (rank < 0) rank = -rank - 1;
+            words[i] = "Word" + Math.min(rank, vocabulary - 1);
+        }
+        return words;
+    }
+}
@@ -0,0 +1,44 @@
+package ru.kontur.courses;
+
+import java.util.List;
+
+/**
+ * Держит слова упорядоченными по мере подсчета (см. FrequencyBuckets):
+ * addWord переносит слово в соседнюю корзину, а getStatistics — линейный обход без сортировки.
+ */
+public class BucketWordStatistics implements WordStatistics {
+    private final FrequencyBuckets buckets = new FrequencyBuckets();
+
+    @Override
+    public void addWord(String word) {
+        String lowerWord = WordNormalizer.normalize(word);
+        if (lowerWord == null) return;
+
+        buckets.increment(lowerWord);
+    }
+
+    @Override
+    public void addWord(String word, int count) {
+        if (word == null || count < 0) throw new IllegalArgumentException();
+        String lowerWord = WordNormalizer.normalize(word);
+        if (lowerWord != null)
+            buckets.increment(lowerWord, count);
+    }
+
+    @Override
+    public void merge(WordStatistics other) {
+        if (other == null) throw new IllegalArgumentException();
+        for (var wordCount : other.getStatistics())
+            buckets.increment(wordCount.getWord(), wordCount.getCount());
+    }
+
+    @Override
+    public List<WordCount> getStatistics() {
+        return buckets.top(Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<WordCount> getTop(int n) {
+        return buckets.top(n);
+    }
+}
@@ -0,0 +1,100 @@
+package ru.kontur.courses;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Кэширует упорядоченную статистику между изменениями: каждое изменение увеличивает версию,
+ * и getStatistics перестраивает снимок только если версия поменялась с прошлого вызова.
+ */
+public class CachingWordStatistics implements WordStatistics {
+    private record Snapshot(long version, WordCountList statistics) {
+    }
+
+    private final WordStatistics statistics;
+    // Увеличивается после изменения: снимок, построенный параллельно с ним, получит старую версию и будет перестроен
+    private final AtomicLong version = new AtomicLong();
+    private volatile Snapshot snapshot = new Snapshot(-1, WordCountList.empty());
+
+    public CachingWordStatistics(WordStatistics statistics) {
+        if (statistics == null) throw new IllegalArgumentException();
+        this.statistics = statistics;
+    }
+
+    @Override
+    public void addWord(String word) {
+        statistics.addWord(word);
+        version.incrementAndGet();
+    }
+
+    @Override
+    public void addWords(String[] words) {
+        statistics.addWords(words);
+        version.incrementAndGet();
+    }
+
+    @Override
+    public void addWords(Iterable<? extends CharSequence> words) {
+        statistics.addWords(words);
+        version.incrementAndGet();
+    }
+
+    @Override
+    public void addWord(String word, int count) {
+        statistics.addWord(word, count);
+        version.incrementAndGet();
+    }
+
+    @Override
+    public void merge(WordStatistics other) {
+        statistics.merge(other);
+        version.incrementAndGet();
+    }
+
+    @Override
+    public void addWord(CharSequence text, int from, int to) {
+        statistics.addWord(text, from, to);
+        version.incrementAndGet();
+    }
+
+    @Override
+    public List<WordCount> getStatistics() {
+        return snapshot();
+    }
+
+    @Override
+    public List<WordCount> getTop(int n) {
+        if (n < 0) throw new IllegalArgumentException();
+        var current = snapshot();
+        return current.subList(0, Math.min(n, current.size()));
+    }
+
+    @Override
+    public Stream<WordCount> stream() {
+        return snapshot().stream();
+    }
+
+    private WordCountList snapshot() {
+        var current = snapshot;
+        long actualVersion = version.get();
+        if (current.version == actualVersion)
+            return current.statistics;
+
+        var list = toColumns(statistics.getStatistics());
+        snapshot = new Snapshot(actualVersion, list);
+        return list;
+    }
+
+    private static WordCountList toColumns(List<WordCount> statistics) {
+        if (statistics instanceof WordCountList list)
+            return list;
+        var words = new String[statistics.size()];
+        var counts = new int[statistics.size()];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = statistics.get(i).getWord();
+            counts[i] = statistics.get(i).getCount();
+        }
+        return WordCountList.ofSorted(words, counts, words.length);
+    }
+}
@@ -0,0 +1,74 @@
+package ru.kontur.courses;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Потокобезопасная реализация: addWord из разных потоков не берет общей блокировки,
+ * счетчик каждого слова — отдельный LongAdder
+ */
+public class ConcurrentWordStatistics implements WordStatistics {
+    protected final ConcurrentMap<String, LongAdder> statistics = new ConcurrentHashMap<>();
+
+    @Override
+    public void addWord(String word) {
+        String lowerWord = WordNormalizer.normalize(word);
+        if (lowerWord == null) return;
+
+        counter(lowerWord).increment();
+    }
+
+    @Override
+    public void addWord(String word, int count) {
+        if (word == null || count < 0) throw new IllegalArgumentException();
+        String lowerWord = WordNormalizer.normalize(word);
+        if (lowerWord != null && count > 0)
+            counter(lowerWord).add(count);
+    }
+
+    @Override
+    public void merge(WordStatistics other) {
+        if (other == null) throw new IllegalArgumentException();
+        for (var wordCount : other.getStatistics())
+            counter(wordCount.getWord()).add(wordCount.getCount());
+    }
+
+    @Override
+    public List<WordCount> getStatistics() {
+        var words = new String[statistics.size()];
+        var counts = new int[words.length];
+        int size = 0;
+        for (var entry : statistics.entrySet()) {
+            // Счетчик публикуется в словаре до первого increment: такое слово еще не добавлено
+            int count = entry.getValue().intValue();
+            if (count == 0) continue;
+            // Словарь может вырасти во время обхода
+            if (size == words.length) {
+                words = Arrays.copyOf(words, size * 2 + 16);
+                counts = Arrays.copyOf(counts, words.length);
+            }
+            words[size] = entry.getKey();
+            counts[size++] = count;
+        }
+        return WordCountList.sortedByFrequency(words, counts, size);
+    }
+
+    @Override
+    public List<WordCount> getTop(int n) {
+        return Ranking.top(statistics.entrySet(), LongAdder::intValue, n);
+    }
+
+    @Override
+    public Stream<WordCount> stream() {
+        return Ranking.stream(statistics.entrySet(), LongAdder::intValue);
+    }
+
+    private LongAdder counter(String lowerWord) {
+        var counter = statistics.get(lowerWord);
+        return counter != null ? counter : statistics.computeIfAbsent(lowerWord, it -> new LongAdder());
+    }
+}
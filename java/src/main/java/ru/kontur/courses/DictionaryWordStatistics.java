@@ -0,0 +1,113 @@
+package ru.kontur.courses;
+
+import java.util.List;
+
+/**
+ * Статистика поверх общего WordDictionary: хранит только идентификаторы слов и частоты
+ * в таблице с открытой адресацией на двух int-массивах. Слияние статистик с общим словарем не трогает строки.
+ */
+public class DictionaryWordStatistics implements WordStatistics {
+    private final WordDictionary dictionary;
+    private int[] ids = new int[16];
+    private int[] counts = new int[16];
+    private int size;
+
+    public DictionaryWordStatistics(WordDictionary dictionary) {
+        if (dictionary == null) throw new IllegalArgumentException();
+        this.dictionary = dictionary;
+    }
+
+    public WordDictionary getDictionary() {
+        return dictionary;
+    }
+
+    @Override
+    public void addWord(String word) {
+        String lowerWord = WordNormalizer.normalize(word);
+        if (lowerWord == null) return;
+
+        add(dictionary.id(lowerWord), 1);
+    }
+
+    @Override
+    public void addWord(String word, int count) {
+        if (word == null || count < 0) throw new IllegalArgumentException();
+        String lowerWord = WordNormalizer.normalize(word);
+        if (lowerWord != null && count > 0)
+            add(dictionary.id(lowerWord), count);
+    }
+
+    @Override
+    public void merge(WordStatistics other) {
+        if (other == null) throw new IllegalArgumentException();
+        if (other instanceof DictionaryWordStatistics statistics) {
+            merge(statistics);
+            return;
+        }
+        for (var wordCount : other.getStatistics()) {
+            if (wordCount.getCount() > 0)
+                add(dictionary.id(wordCount.getWord()), wordCount.getCount());
+        }
+    }
+
+    private void merge(DictionaryWordStatistics other) {
+        var sameDictionary = other.dictionary == dictionary;
+        // При слиянии с собой таблица меняется во время обхода, поэтому обходим копию
+        var otherIds = other == this ? ids.clone() : other.ids;
+        var otherCounts = other == this ? counts.clone() : other.counts;
+        for (int i = 0; i < otherCounts.length; i++) {
+            if (otherCounts[i] == 0) continue;
+            int id = sameDictionary ? otherIds[i] : dictionary.id(other.dictionary.word(otherIds[i]));
+            add(id, otherCounts[i]);
+        }
+    }
+
+    @Override
+    public List<WordCount> getStatistics() {
+        var words = new String[size];
+        var wordCounts = new int[size];
+        int index = 0;
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) continue;
+            words[index] = dictionary.word(ids[i]);
+            wordCounts[index++] = counts[i];
+        }
+        return WordCountList.sortedByFrequency(words, wordCounts, index);
+    }
+
+    private void add(int id, int count) {
+        int mask = counts.length - 1;
+        int index = hash(id) & mask;
+        while (counts[index] != 0) {
+            if (ids[index] == id) {
+                counts[index] += count;
+                return;
+            }
+            index = (index + 1) & mask;
+        }
+        ids[index] = id;
+        counts[index] = count;
+        if (++size > counts.length * 3 / 4)
+            resize();
+    }
+
+    private void resize() {
+        var oldIds = ids;
+        var oldCounts = counts;
+        ids = new int[oldCounts.length * 2];
+        counts = new int[oldCounts.length * 2];
+        int mask = counts.length - 1;
+        for (int i = 0; i < oldCounts.length; i++) {
+            if (oldCounts[i] == 0) continue;
+            int index = hash(oldIds[i]) & mask;
+            while (counts[index] != 0)
+                index = (index + 1) & mask;
+            ids[index] = oldIds[i];
+            counts[index] = oldCounts[i];
+        }
+    }
+
+    private static int hash(int id) {
+        return id * 0x9E3779B9 >>> 7;
+    }
+}
@@ -0,0 +1,462 @@
+package ru.kontur.courses;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * WordStatisticImpl с журналом упреждающей записи в каталоге directory.
+ * Каждое добавление сначала попадает в журнал записью: unsigned byte длина нормализованного слова в байтах,
+ * слово в ModifiedUtf8, varint частота. Записи копятся в группу, которая дописывается в сегмент одним блоком
+ * (int длина, int CRC32, записи) и одним fsync, когда набралось groupCommitBytes или прошло commitInterval.
+ * При сбое теряется не больше одного commitInterval; при commitInterval = 0 fsync выполняется на каждое слово.
+ * <p>
+ * Сегмент wal-N.log сменяется следующим, когда вырастает до segmentBytes. Каждые segmentsPerSnapshot сегментов
+ * пишется снимок snapshot-N.bin со всеми словами из сегментов до N, после чего эти сегменты удаляются.
+ * При открытии читается последний снимок и проигрываются сегменты после него; недописанный последний блок отбрасывается.
+ * <p>
+ * Весь ввод-вывод после открытия идет в одном потоке журнала: прерывание потока, вызвавшего addWord или commit,
+ * закрыло бы FileChannel. Если блок не удалось записать, сегмент обрезается до начала блока, а группа остается
+ * в очереди и пишется следующим commit; если не удалось и обрезать, журнал отказывает во всех дальнейших вызовах.
+ * Ошибка периодической записи бросается из следующего addWord или commit, иначе о нарушенной границе потерь
+ * никто бы не узнал до заполнения группы.
+ */
+public class DurableWordStatistics implements WordStatistics, AutoCloseable {
+    private static final int BLOCK_HEADER = 8;
+    private static final int MAX_WORD_BYTES = 255;
+    private static final String SEGMENT_PREFIX = "wal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".bin";
+
+    private final Path directory;
+    private final int groupCommitBytes;
+    private final long segmentBytes;
+    private final int segmentsPerSnapshot;
+    private final boolean commitEveryWord;
+    private final SegmentOpener opener;
+    private final WordStatisticImpl statistics;
+    private final ScheduledExecutorService committer;
+
+    // Под this: статистика и еще не записанная группа
+    private byte[] pending = new byte[4096];
+    private int pendingSize;
+
+    // Только в потоке журнала: текущий сегмент
+    private FileChannel segment;
+    private long segmentNumber;
+    private long snapshotNumber;
+    private volatile boolean closed;
+    private volatile IOException failure;
+    // Под this: ошибка периодической записи, о которой еще не сообщили вызывающему
+    private IOException scheduledFailure;
+
+    private DurableWordStatistics(Path directory, int groupCommitBytes, Duration commitInterval, long segmentBytes,
+                                  int segmentsPerSnapshot, SegmentOpener opener) throws IOException {
+        this.directory = directory;
+        this.groupCommitBytes = groupCommitBytes;
+        this.segmentBytes = segmentBytes;
+        this.segmentsPerSnapshot = segmentsPerSnapshot;
+        this.commitEveryWord = commitInterval.isZero();
+        this.opener = opener;
+        Files.createDirectories(directory);
+
+        snapshotNumber = latest(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+        statistics = snapshotNumber < 0 ? new WordStatisticImpl() : WordStatisticsSnapshot.read(snapshot(snapshotNumber));
+        snapshotNumber = Math.max(snapshotNumber, 0);
+        segmentNumber = snapshotNumber;
+        for (var number : numbers(SEGMENT_PREFIX, SEGMENT_SUFFIX)) {
+            if (number < snapshotNumber) continue;
+            replay(segment(number));
+            segmentNumber = number + 1;
+        }
+        openSegment();
+        deleteBefore(snapshotNumber);
+
+        committer = Executors.newSingleThreadScheduledExecutor(task -> {
+            var thread = new Thread(task, "word-statistics-wal-" + directory.getFileName());
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (!commitEveryWord) {
+            long nanos = commitInterval.toNanos();
+            committer.scheduleWithFixedDelay(this::commitQuietly, nanos, nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Журнал с группами по 64 КБ, fsync раз в 10 мс, сегментами по 64 МБ и снимком на каждые 4 сегмента
+     */
+    public static DurableWordStatistics open(Path directory) throws IOException {
+        return open(directory, 64 * 1024, Duration.ofMillis(10), 64L << 20, 4);
+    }
+
+    public static DurableWordStatistics open(Path directory, int groupCommitBytes, Duration commitInterval,
+                                             long segmentBytes, int segmentsPerSnapshot) throws IOException {
+        return open(directory, groupCommitBytes, commitInterval, segmentBytes, segmentsPerSnapshot,
+                path -> FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE));
+    }
+
+    static DurableWordStatistics open(Path directory, int groupCommitBytes, Duration commitInterval,
+                                      long segmentBytes, int segmentsPerSnapshot, SegmentOpener opener) throws IOException {
+        if (directory == null || groupCommitBytes <= 0 || commitInterval == null || commitInterval.isNegative()
+                || segmentBytes <= 0 || segmentsPerSnapshot <= 0 || opener == null)
+            throw new IllegalArgumentException();
+        return new DurableWordStatistics(directory, groupCommitBytes, commitInterval, segmentBytes, segmentsPerSnapshot,
+                opener);
+    }
+
+    @Override
+    public void addWord(String word) {
+        addWord(word, 1);
+    }
+
+    @Override
+    public void addWord(String word, int count) {
+        if (word == null || count < 0) throw new IllegalArgumentException();
+        String lowerWord = WordNormalizer.normalize(word);
+        if (lowerWord != null && count > 0)
+            add(lowerWord, count);
+    }
+
+    @Override
+    public void merge(WordStatistics other) {
+        if (other == null) throw new IllegalArgumentException();
+        for (var wordCount : other.getStatistics()) {
+            if (wordCount.getCount() > 0)
+                add(wordCount.getWord(), wordCount.getCount());
+        }
+    }
+
+    @Override
+    public synchronized List<WordCount> getStatistics() {
+        return statistics.getStatistics();
+    }
+
+    /**
+     * Записывает накопленную группу и дожидается fsync
+     */
+    public void commit() throws IOException {
+        ensureOpen();
+        rethrowScheduledFailure();
+        inCommitter(this::flush);
+    }
+
+    /**
+     * Пишет снимок текущей статистики и удаляет покрытые им сегменты
+     */
+    public void checkpoint() throws IOException {
+        ensureOpen();
+        inCommitter(this::writeSnapshot);
+    }
+
+    /**
+     * Записывает накопленную группу и закрывает сегмент; снимок не пишется
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        try {
+            inCommitter(() -> {
+                if (closed) return;
+                try {
+                    flush();
+                } finally {
+                    closed = true;
+                    segment.close();
+                }
+            });
+        } finally {
+            committer.shutdown();
+        }
+    }
+
+    private void add(String lowerWord, int count) {
+        boolean full;
+        synchronized (this) {
+            ensureOpen();
+            try {
+                rethrowScheduledFailure();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            int length = ModifiedUtf8.length(lowerWord, 0, lowerWord.length());
+            if (length > MAX_WORD_BYTES) throw new IllegalArgumentException("Слишком длинное слово: " + lowerWord);
+            if (pendingSize + 1 + length + 5 > pending.length)
+                pending = Arrays.copyOf(pending, Math.max(pending.length * 2, pendingSize + 1 + length + 5));
+            pending[pendingSize++] = (byte) length;
+            pendingSize = ModifiedUtf8.encode(lowerWord, 0, lowerWord.length(), pending, pendingSize);
+            pendingSize = writeVarInt(pending, pendingSize, count);
+            statistics.statistics.merge(lowerWord, count, Integer::sum);
+            full = pendingSize >= groupCommitBytes || commitEveryWord;
+        }
+        if (full) {
+            try {
+                commit();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private void commitQuietly() {
+        try {
+            flush();
+        } catch (IOException e) {
+            // Группа осталась в очереди и будет записана повторно, а об ошибке узнает следующий вызывающий
+            synchronized (this) {
+                if (scheduledFailure == null) scheduledFailure = e;
+            }
+        } catch (IllegalStateException e) {
+            // Журнал закрыт или уже отказал, об этом сообщит ensureOpen
+        }
+    }
+
+    private synchronized void rethrowScheduledFailure() throws IOException {
+        var e = scheduledFailure;
+        if (e == null) return;
+        scheduledFailure = null;
+        throw new IOException("Периодическая запись журнала не удалась", e);
+    }
+
+    /**
+     * Выполняет task в потоке журнала и дожидается его, не прерываясь: прерывание вызывающего потока
+     * откладывается до конца записи, а сама запись доводится до конца
+     */
+    private void inCommitter(IoTask task) throws IOException {
+        Future<?> future;
+        try {
+            future = committer.submit(() -> {
+                task.run();
+                return null;
+            });
+        } catch (RejectedExecutionException e) {
+            throw new IllegalStateException("Журнал закрыт", e);
+        }
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    future.get();
+                    return;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof IOException cause) throw cause;
+                    if (e.getCause() instanceof RuntimeException cause) throw cause;
+                    throw new IOException(e.getCause());
+                }
+            }
+        } finally {
+            if (interrupted)
+                Thread.currentThread().interrupt();
+        }
+    }
+
+    private void flush() throws IOException {
+        ensureOpen();
+        byte[] group;
+        int size;
+        synchronized (this) {
+            group = pending;
+            size = pendingSize;
+            pending = new byte[Math.max(4096, Math.min(size, groupCommitBytes * 2))];
+            pendingSize = 0;
+        }
+        write(group, size);
+        if (segment.size() >= segmentBytes)
+            rotate();
+    }
+
+    private void writeSnapshot() throws IOException {
+        ensureOpen();
+        byte[] group;
+        int size;
+        var copy = new WordStatisticImpl();
+        // Снимок должен содержать ровно то, что записано в сегменты до нового
+        synchronized (this) {
+            group = pending;
+            size = pendingSize;
+            pending = new byte[group.length];
+            pendingSize = 0;
+            copy.statistics.putAll(statistics.statistics);
+        }
+        write(group, size);
+        nextSegment();
+        // Снимок сбрасывает на диск и себя, и каталог, только после этого покрытые им сегменты можно удалять
+        WordStatisticsSnapshot.write(copy, snapshot(segmentNumber));
+        snapshotNumber = segmentNumber;
+        deleteBefore(snapshotNumber);
+    }
+
+    /**
+     * Дописывает блок и дожидается fsync. При ошибке отрезает недописанный блок, иначе проигрывание
+     * остановилось бы на нем и потеряло все следующие блоки, и возвращает группу в начало очереди
+     */
+    private void write(byte[] group, int size) throws IOException {
+        if (size == 0) return;
+        var crc = new CRC32();
+        crc.update(group, 0, size);
+        var header = ByteBuffer.allocate(BLOCK_HEADER).putInt(size).putInt((int) crc.getValue()).flip();
+        var body = ByteBuffer.wrap(group, 0, size);
+        long start = segment.position();
+        try {
+            while (header.hasRemaining() || body.hasRemaining())
+                segment.write(new ByteBuffer[]{header, body});
+            segment.force(false);
+        } catch (IOException e) {
+            try {
+                segment.truncate(start);
+                segment.position(start);
+            } catch (IOException truncation) {
+                e.addSuppressed(truncation);
+                failure = e;
+            }
+            requeue(group, size);
+            throw e;
+        }
+    }
+
+    private synchronized void requeue(byte[] group, int size) {
+        var merged = Arrays.copyOf(group, Math.max(group.length, size + pendingSize));
+        System.arraycopy(pending, 0, merged, size, pendingSize);
+        pending = merged;
+        pendingSize += size;
+    }
+
+    private void rotate() throws IOException {
+        if (segmentNumber + 1 - snapshotNumber >= segmentsPerSnapshot) {
+            writeSnapshot();
+            return;
+        }
+        nextSegment();
+    }
+
+    private void nextSegment() throws IOException {
+        segment.close();
+        segmentNumber++;
+        openSegment();
+    }
+
+    private void openSegment() throws IOException {
+        segment = opener.open(segment(segmentNumber));
+        segment.position(segment.size());
+        WordStatisticsSnapshot.syncDirectory(directory);
+    }
+
+    /**
+     * Проигрывает блоки сегмента; недописанный или поврежденный хвост отрезается
+     */
+    private void replay(Path path) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) throw new IOException("Слишком большой сегмент: " + path);
+            var buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            var chars = new char[MAX_WORD_BYTES];
+            var crc = new CRC32();
+            int position = 0;
+            while (position + BLOCK_HEADER <= size) {
+                int length = buffer.getInt(position);
+                int checksum = buffer.getInt(position + 4);
+                if (length <= 0 || position + BLOCK_HEADER + (long) length > size) break;
+                crc.reset();
+                crc.update(buffer.slice(position + BLOCK_HEADER, length));
+                if ((int) crc.getValue() != checksum) break;
+
+                var block = buffer.slice(position + BLOCK_HEADER, length);
+                while (block.hasRemaining()) {
+                    int wordLength = Byte.toUnsignedInt(block.get());
+                    var word = new String(chars, 0, ModifiedUtf8.decode(block, wordLength, chars, 0));
+                    statistics.statistics.merge(word, readVarInt(block), Integer::sum);
+                }
+                position += BLOCK_HEADER + length;
+            }
+            if (position < size)
+                channel.truncate(position);
+        }
+    }
+
+    private void deleteBefore(long number) throws IOException {
+        for (var segmentNumber : numbers(SEGMENT_PREFIX, SEGMENT_SUFFIX)) {
+            if (segmentNumber < number) Files.deleteIfExists(segment(segmentNumber));
+        }
+        for (var snapshotNumber : numbers(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX)) {
+            if (snapshotNumber < number) Files.deleteIfExists(snapshot(snapshotNumber));
+        }
+    }
+
+    private long latest(String prefix, String suffix) throws IOException {
+        var numbers = numbers(prefix, suffix);
+        return numbers.isEmpty() ? -1 : numbers.get(numbers.size() - 1);
+    }
+
+    private List<Long> numbers(String prefix, String suffix) throws IOException {
+        var result = new ArrayList<Long>();
+        try (var files = Files.newDirectoryStream(directory, prefix + "*" + suffix)) {
+            for (var file : files) {
+                var name = file.getFileName().toString();
+                try {
+                    result.add(Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length())));
+                } catch (NumberFormatException e) {
+                    // Чужой файл с похожим именем
+                }
+            }
+        }
+        result.sort(null);
+        return result;
+    }
+
+    private Path segment(long number) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX));
+    }
+
+    private Path snapshot(long number) {
+        return directory.resolve(String.format("%s%020d%s", SNAPSHOT_PREFIX, number, SNAPSHOT_SUFFIX));
+    }
+
+    private void ensureOpen() {
+        if (closed) throw new IllegalStateException("Журнал закрыт");
+        if (failure != null) throw new IllegalStateException("Журнал не пишется после ошибки записи", failure);
+    }
+
+    private static int writeVarInt(byte[] bytes, int offset, int value) {
+        while ((value & ~0x7F) != 0) {
+            bytes[offset++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        bytes[offset++] = (byte) value;
+        return offset;
+    }
+
+    interface SegmentOpener {
+        FileChannel open(Path path) throws IOException;
+    }
+
+    private interface IoTask {
+        void run() throws IOException;
+    }
+
+    private static int readVarInt(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+    }
+}
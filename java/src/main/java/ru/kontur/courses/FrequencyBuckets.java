@@ -0,0 +1,137 @@
+package ru.kontur.courses;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Слова, упорядоченные по частоте: слова с одинаковой частотой лежат в одной корзине
+ * (по алфавиту), корзины связаны в список по возрастанию частоты.
+ * Увеличение частоты переносит слово в соседнюю корзину, обход в порядке WordCount.BY_FREQUENCY не требует сортировки.
+ */
+final class FrequencyBuckets {
+    private static class Bucket {
+        final int count;
+        final TreeSet<String> words = new TreeSet<>();
+        Bucket higher;
+        Bucket lower;
+
+        Bucket(int count) {
+            this.count = count;
+        }
+    }
+
+    private final Map<String, Bucket> buckets = new HashMap<>();
+    private Bucket highest;
+    private Bucket lowest;
+
+    int size() {
+        return buckets.size();
+    }
+
+    int count(String word) {
+        var bucket = buckets.get(word);
+        return bucket == null ? 0 : bucket.count;
+    }
+
+    void increment(String word) {
+        increment(word, 1);
+    }
+
+    /**
+     * Увеличивает частоту слова на delta; корзина ищется вверх от текущей
+     */
+    void increment(String word, int delta) {
+        if (delta < 0) throw new IllegalArgumentException();
+        var current = buckets.get(word);
+        if (current == null) {
+            if (delta > 0) add(word, delta);
+            return;
+        }
+        if (delta == 0) return;
+
+        int count = current.count + delta;
+        var below = current;
+        var next = current.higher;
+        while (next != null && next.count < count) {
+            below = next;
+            next = next.higher;
+        }
+        if (next == null || next.count != count)
+            next = insertAbove(below, count);
+        removeFrom(current, word);
+        next.words.add(word);
+        buckets.put(word, next);
+    }
+
+    /**
+     * Добавляет отсутствующее слово; корзина ищется от самой редкой частоты
+     */
+    void add(String word, int count) {
+        if (count <= 0 || buckets.containsKey(word)) throw new IllegalArgumentException();
+        Bucket below = null;
+        var bucket = lowest;
+        while (bucket != null && bucket.count < count) {
+            below = bucket;
+            bucket = bucket.higher;
+        }
+        if (bucket == null || bucket.count != count)
+            bucket = insertAbove(below, count);
+        bucket.words.add(word);
+        buckets.put(word, bucket);
+    }
+
+    void remove(String word) {
+        var bucket = buckets.remove(word);
+        if (bucket != null)
+            removeFrom(bucket, word);
+    }
+
+    /**
+     * Последнее по алфавиту среди самых редких слов, null если слов нет
+     */
+    String lowestWord() {
+        return lowest == null ? null : lowest.words.last();
+    }
+
+    WordCountList top(int n) {
+        if (n < 0) throw new IllegalArgumentException();
+        int size = Math.min(n, buckets.size());
+        var words = new String[size];
+        var counts = new int[size];
+        int index = 0;
+        for (var bucket = highest; bucket != null && index < size; bucket = bucket.lower) {
+            for (var word : bucket.words) {
+                if (index == size) break;
+                words[index] = word;
+                counts[index++] = bucket.count;
+            }
+        }
+        return WordCountList.ofSorted(words, counts, size);
+    }
+
+    private void removeFrom(Bucket bucket, String word) {
+        bucket.words.remove(word);
+        if (bucket.words.isEmpty())
+            unlink(bucket);
+    }
+
+    private Bucket insertAbove(Bucket below, int count) {
+        var bucket = new Bucket(count);
+        var above = below == null ? lowest : below.higher;
+        bucket.lower = below;
+        bucket.higher = above;
+        if (below == null) lowest = bucket;
+        else below.higher = bucket;
+        if (above == null) highest = bucket;
+        else above.lower = bucket;
+        return bucket;
+    }
+
+    private void unlink(Bucket bucket) {
+        if (bucket.lower == null) lowest = bucket.higher;
+        else bucket.lower.higher = bucket.higher;
+        if (bucket.higher == null) highest = bucket.lower;
+        else bucket.higher.lower = bucket.lower;
+    }
+}
@@ -0,0 +1,96 @@
+package ru.kontur.courses;
+
+import java.util.Arrays;
+
+/**
+ * Сортировка колонок слов и частот в порядке WordCount.BY_FREQUENCY без компараторов и упаковки.
+ * Частоты сортируются поразрядно (LSD по байтам, разряды с одинаковым значением у всех пропускаются),
+ * слова сравниваются только внутри серий с равной частотой. От PARALLEL_THRESHOLD элементов
+ * используется Arrays.parallelSort. Порядок совпадает с сортировкой компаратором эталона.
+ */
+final class FrequencySort {
+    static final int RADIX_THRESHOLD = 256;
+    static final int PARALLEL_THRESHOLD = 1 << 18;
+
+    private FrequencySort() {
+    }
+
+    /**
+     * Переставляет первые size элементов words и counts на месте
+     */
+    static void sort(String[] words, int[] counts, int size) {
+        var order = size < RADIX_THRESHOLD || size >= PARALLEL_THRESHOLD
+                ? comparisonOrder(counts, size)
+                : radixOrder(counts, size);
+
+        var sortedWords = new String[size];
+        for (int i = 0; i < size; i++)
+            sortedWords[i] = words[order[i]];
+        for (int i = 0; i < size; i++) {
+            words[i] = sortedWords[i];
+            // order больше не нужен, переиспользуем его под частоты
+            order[i] = counts[order[i]];
+        }
+        System.arraycopy(order, 0, counts, 0, size);
+
+        for (int start = 0, end; start < size; start = end) {
+            end = start + 1;
+            while (end < size && counts[end] == counts[start])
+                end++;
+            if (end - start >= PARALLEL_THRESHOLD) Arrays.parallelSort(words, start, end);
+            else if (end - start > 1) Arrays.sort(words, start, end);
+        }
+    }
+
+    /**
+     * Ключ — инвертированная частота и исходный индекс, поэтому порядок полный и сортировка может быть нестабильной
+     */
+    private static int[] comparisonOrder(int[] counts, int size) {
+        var keys = new long[size];
+        for (int i = 0; i < size; i++)
+            keys[i] = ((long) (Integer.MAX_VALUE - counts[i]) << 32) | i;
+        if (size >= PARALLEL_THRESHOLD) Arrays.parallelSort(keys);
+        else Arrays.sort(keys);
+
+        var order = new int[size];
+        for (int i = 0; i < size; i++)
+            order[i] = (int) keys[i];
+        return order;
+    }
+
+    private static int[] radixOrder(int[] counts, int size) {
+        var keys = new int[size];
+        var order = new int[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = Integer.MAX_VALUE - counts[i];
+            order[i] = i;
+        }
+        var nextKeys = new int[size];
+        var nextOrder = new int[size];
+        var histogram = new int[256];
+        for (int shift = 0; shift < 32; shift += 8) {
+            Arrays.fill(histogram, 0);
+            for (int i = 0; i < size; i++)
+                histogram[(keys[i] >>> shift) & 0xFF]++;
+            if (histogram[(keys[0] >>> shift) & 0xFF] == size) continue;
+
+            for (int digit = 0, position = 0; digit < 256; digit++) {
+                int count = histogram[digit];
+                histogram[digit] = position;
+                position += count;
+            }
+            for (int i = 0; i < size; i++) {
+                int position = histogram[(keys[i] >>> shift) & 0xFF]++;
+                nextKeys[position] = keys[i];
+                nextOrder[position] = order[i];
+            }
+            var swapKeys = keys;
+            keys = nextKeys;
+            nextKeys = swapKeys;
+            var swapOrder = order;
+            order = nextOrder;
+            nextOrder = swapOrder;
+        }
+        return order;
+    }
+}
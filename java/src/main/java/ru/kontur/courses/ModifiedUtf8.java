@@ -0,0 +1,56 @@
+package ru.kontur.courses;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Кодирование строк посимвольно, как в DataOutput.writeUTF: каждый char занимает 1-3 байта.
+ * В отличие от UTF-8 сохраняет одиночные суррогаты, которые появляются, когда обрезка до 10 символов разрезает пару.
+ */
+final class ModifiedUtf8 {
+    private ModifiedUtf8() {
+    }
+
+    static int length(CharSequence text, int from, int to) {
+        int length = 0;
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            length += c >= 0x01 && c <= 0x7F ? 1 : c <= 0x7FF ? 2 : 3;
+        }
+        return length;
+    }
+
+    static int encode(CharSequence text, int from, int to, byte[] bytes, int offset) {
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            if (c >= 0x01 && c <= 0x7F) {
+                bytes[offset++] = (byte) c;
+            } else if (c <= 0x7FF) {
+                bytes[offset++] = (byte) (0xC0 | (c >> 6));
+                bytes[offset++] = (byte) (0x80 | (c & 0x3F));
+            } else {
+                bytes[offset++] = (byte) (0xE0 | (c >> 12));
+                bytes[offset++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                bytes[offset++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        return offset;
+    }
+
+    /**
+     * Читает length байт из buffer и дописывает символы в chars начиная с offset; возвращает новую длину
+     */
+    static int decode(ByteBuffer buffer, int length, char[] chars, int offset) {
+        int end = buffer.position() + length;
+        while (buffer.position() < end) {
+            int b = buffer.get() & 0xFF;
+            if (b < 0x80) {
+                chars[offset++] = (char) b;
+            } else if ((b & 0xE0) == 0xC0) {
+                chars[offset++] = (char) (((b & 0x1F) << 6) | (buffer.get() & 0x3F));
+            } else {
+                chars[offset++] = (char) (((b & 0x0F) << 12) | ((buffer.get() & 0x3F) << 6) | (buffer.get() & 0x3F));
+            }
+        }
+        return offset;
+    }
+}
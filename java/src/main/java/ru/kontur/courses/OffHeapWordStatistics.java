@@ -0,0 +1,223 @@
+package ru.kontur.courses;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Статистика для очень больших словарей: слова и частоты лежат вне кучи, в хеш-таблице с открытой адресацией
+ * из слотов фиксированной ширины. Слот занимает SLOT_SIZE байт: int частота (0 — слот свободен),
+ * short длина слова и до WordNormalizer.MAX_LENGTH символов. Таблица разбита на direct ByteBuffer
+ * по CHUNK_SLOTS слотов, поэтому может быть больше 2 ГБ. В куче остаются только массив кусков и счетчики,
+ * так что паузы GC не зависят от размера словаря.
+ * Редкие слова, которые после приведения к нижнему регистру стали длиннее слота (например, из 'İ'),
+ * хранятся в обычном HashMap.
+ * <p>
+ * Куски выделяются через ByteBuffer.allocateDirect, а их общий объем ограничен -XX:MaxDirectMemorySize.
+ * По умолчанию этот предел равен -Xmx, поэтому для словаря больше кучи его нужно поднять явно,
+ * иначе allocateDirect бросит OutOfMemoryError: Direct buffer memory.
+ * Старые куски при росте таблицы и все куски при close() освобождаются, когда сборщик соберет их ByteBuffer.
+ * Дойдя до предела, allocateDirect сам вызывает System.gc(), поэтому с -XX:+DisableExplicitGC предел нужно
+ * брать с запасом на таблицы, еще не собранные сборщиком.
+ * После close() статистикой пользоваться нельзя. Не потокобезопасна.
+ */
+public class OffHeapWordStatistics implements WordStatistics, AutoCloseable {
+    static final int SLOT_SIZE = 32;
+    static final int CHUNK_SLOTS = 1 << 20;
+    private static final int COUNT_OFFSET = 0;
+    private static final int LENGTH_OFFSET = 4;
+    private static final int CHARS_OFFSET = 8;
+
+    private ByteBuffer[] chunks;
+    private long capacity;
+    private long size;
+    private final Map<String, Integer> overflow = new HashMap<>();
+
+    public OffHeapWordStatistics() {
+        this(1 << 10);
+    }
+
+    /**
+     * @param expectedWords ожидаемое число различных слов, таблица сразу выделяется под него
+     */
+    public OffHeapWordStatistics(long expectedWords) {
+        if (expectedWords < 0) throw new IllegalArgumentException();
+        long capacity = 16;
+        while (capacity * 3 / 4 < expectedWords)
+            capacity *= 2;
+        allocate(capacity);
+    }
+
+    @Override
+    public void addWord(String word) {
+        if (word == null) throw new IllegalArgumentException();
+        String lowerWord = WordNormalizer.normalize(word);
+        if (lowerWord != null)
+            add(lowerWord, 1);
+    }
+
+    @Override
+    public void addWord(String word, int count) {
+        if (word == null || count < 0) throw new IllegalArgumentException();
+        String lowerWord = WordNormalizer.normalize(word);
+        if (lowerWord != null && count > 0)
+            add(lowerWord, count);
+    }
+
+    @Override
+    public void merge(WordStatistics other) {
+        if (other == null) throw new IllegalArgumentException();
+        for (var wordCount : other.getStatistics()) {
+            if (wordCount.getCount() > 0)
+                add(wordCount.getWord(), wordCount.getCount());
+        }
+    }
+
+    @Override
+    public List<WordCount> getStatistics() {
+        ensureOpen();
+        long total = size + overflow.size();
+        if (total > Integer.MAX_VALUE - 8) throw new IllegalStateException("Слишком много слов для списка: " + total);
+
+        var words = new String[(int) total];
+        var counts = new int[(int) total];
+        var chars = new char[WordNormalizer.MAX_LENGTH];
+        int index = 0;
+        for (var entry : overflow.entrySet()) {
+            words[index] = entry.getKey();
+            counts[index++] = entry.getValue();
+        }
+        for (var chunk : chunks) {
+            for (int offset = 0; offset < chunk.capacity(); offset += SLOT_SIZE) {
+                int count = chunk.getInt(offset + COUNT_OFFSET);
+                if (count == 0) continue;
+                int length = chunk.getShort(offset + LENGTH_OFFSET);
+                for (int i = 0; i < length; i++)
+                    chars[i] = chunk.getChar(offset + CHARS_OFFSET + 2 * i);
+                words[index] = new String(chars, 0, length);
+                counts[index++] = count;
+            }
+        }
+        return WordCountList.sortedByFrequency(words, counts, index);
+    }
+
+    @Override
+    public long size() {
+        ensureOpen();
+        return size + overflow.size();
+    }
+
+    /**
+     * Сколько байт занимает таблица вне кучи
+     */
+    public long getOffHeapBytes() {
+        return chunks == null ? 0 : capacity * SLOT_SIZE;
+    }
+
+    /**
+     * Отпускает таблицу; повторный вызов ничего не делает
+     */
+    @Override
+    public void close() {
+        chunks = null;
+        capacity = 0;
+        size = 0;
+        overflow.clear();
+    }
+
+    private void add(String lowerWord, int count) {
+        ensureOpen();
+        if (lowerWord.length() > WordNormalizer.MAX_LENGTH) {
+            overflow.merge(lowerWord, count, Integer::sum);
+            return;
+        }
+
+        long mask = capacity - 1;
+        long slot = hash(lowerWord) & mask;
+        while (true) {
+            var chunk = chunks[(int) (slot / CHUNK_SLOTS)];
+            int offset = (int) (slot % CHUNK_SLOTS) * SLOT_SIZE;
+            int current = chunk.getInt(offset + COUNT_OFFSET);
+            if (current == 0) {
+                chunk.putShort(offset + LENGTH_OFFSET, (short) lowerWord.length());
+                for (int i = 0; i < lowerWord.length(); i++)
+                    chunk.putChar(offset + CHARS_OFFSET + 2 * i, lowerWord.charAt(i));
+                chunk.putInt(offset + COUNT_OFFSET, count);
+                if (++size > capacity * 3 / 4)
+                    resize();
+                return;
+            }
+            if (matches(chunk, offset, lowerWord)) {
+                chunk.putInt(offset + COUNT_OFFSET, current + count);
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private static boolean matches(ByteBuffer chunk, int offset, String word) {
+        if (chunk.getShort(offset + LENGTH_OFFSET) != word.length()) return false;
+        for (int i = 0; i < word.length(); i++) {
+            if (chunk.getChar(offset + CHARS_OFFSET + 2 * i) != word.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    private void resize() {
+        var oldChunks = chunks;
+        allocate(capacity * 2);
+        long mask = capacity - 1;
+        for (var oldChunk : oldChunks) {
+            for (int oldOffset = 0; oldOffset < oldChunk.capacity(); oldOffset += SLOT_SIZE) {
+                if (oldChunk.getInt(oldOffset + COUNT_OFFSET) == 0) continue;
+                long slot = hash(oldChunk, oldOffset) & mask;
+                while (true) {
+                    var chunk = chunks[(int) (slot / CHUNK_SLOTS)];
+                    int offset = (int) (slot % CHUNK_SLOTS) * SLOT_SIZE;
+                    if (chunk.getInt(offset + COUNT_OFFSET) == 0) {
+                        chunk.put(offset, oldChunk, oldOffset, SLOT_SIZE);
+                        size++;
+                        break;
+                    }
+                    slot = (slot + 1) & mask;
+                }
+            }
+        }
+    }
+
+    private void allocate(long capacity) {
+        int chunkSlots = (int) Math.min(capacity, CHUNK_SLOTS);
+        var chunks = new ByteBuffer[(int) (capacity / chunkSlots)];
+        for (int i = 0; i < chunks.length; i++)
+            chunks[i] = ByteBuffer.allocateDirect(chunkSlots * SLOT_SIZE).order(ByteOrder.nativeOrder());
+        this.chunks = chunks;
+        this.capacity = capacity;
+        this.size = 0;
+    }
+
+    private void ensureOpen() {
+        if (chunks == null) throw new IllegalStateException("Статистика закрыта");
+    }
+
+    private static long hash(String word) {
+        long hash = 0;
+        for (int i = 0; i < word.length(); i++)
+            hash = hash * 31 + word.charAt(i);
+        return mix(hash);
+    }
+
+    private static long hash(ByteBuffer chunk, int offset) {
+        long hash = 0;
+        int length = chunk.getShort(offset + LENGTH_OFFSET);
+        for (int i = 0; i < length; i++)
+            hash = hash * 31 + chunk.getChar(offset + CHARS_OFFSET + 2 * i);
+        return mix(hash);
+    }
+
+    private static long mix(long hash) {
+        hash *= 0x9E3779B97F4A7C15L;
+        return hash ^ (hash >>> 32);
+    }
+}
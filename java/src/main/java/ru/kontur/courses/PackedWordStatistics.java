@@ -0,0 +1,201 @@
+package ru.kontur.courses;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Реализация без аллокаций в addWord для слов из латиницы, кириллицы, цифр и ASCII-знаков:
+ * нормализованное слово упаковывается в 7-битные коды символов (9 символов в long и десятый в byte)
+ * и хранится в таблице с открытой адресацией на параллельных массивах.
+ * Остальные слова идут по обычному пути через HashMap.
+ */
+public class PackedWordStatistics implements WordStatistics {
+    private static final int BITS_PER_CHAR = 7;
+    private static final int CHARS_IN_FIRST_KEY = 9;
+
+    /** Код символа нормализованного слова, 0 — символ не упаковывается */
+    private static final byte[] CODES = new byte[0x452];
+    /** Код символа исходного слова после приведения к нижнему регистру */
+    private static final byte[] FOLDED_CODES = new byte[0x452];
+    private static final char[] CHARS = new char[128];
+
+    static {
+        int code = 0;
+        for (char c = 0x20; c < 0x7F; c++) {
+            if (c < 'A' || c > 'Z')
+                register(c, ++code);
+        }
+        for (char c = 'а'; c <= 'я'; c++)
+            register(c, ++code);
+        register('ё', ++code);
+
+        // Символы, чей нижний регистр зависит от локали (например, турецкая I), идут по медленному пути
+        for (char c = 1; c < FOLDED_CODES.length; c++) {
+            char lower = WordNormalizer.fold(c);
+            if (lower != 0 && lower < CODES.length)
+                FOLDED_CODES[c] = CODES[lower];
+        }
+    }
+
+    private static void register(char c, int code) {
+        CODES[c] = (byte) code;
+        CHARS[code] = c;
+    }
+
+    private long[] keys = new long[64];
+    private byte[] tails = new byte[64];
+    private int[] counts = new int[64];
+    private int size;
+    private final Map<String, Integer> unpacked = new HashMap<>();
+
+    @Override
+    public void addWord(String word) {
+        if (word == null) throw new IllegalArgumentException();
+        count(word, 0, word.length());
+    }
+
+    @Override
+    public void addWord(CharSequence text, int from, int to) {
+        if (text == null) throw new IllegalArgumentException();
+        Objects.checkFromToIndex(from, to, text.length());
+        count(text, from, to);
+    }
+
+    @Override
+    public void addWord(String word, int count) {
+        if (word == null || count < 0) throw new IllegalArgumentException();
+        String lowerWord = WordNormalizer.normalize(word);
+        if (lowerWord != null && count > 0)
+            addNormalized(lowerWord, count);
+    }
+
+    @Override
+    public void merge(WordStatistics other) {
+        if (other == null) throw new IllegalArgumentException();
+        for (var wordCount : other.getStatistics()) {
+            if (wordCount.getCount() > 0)
+                addNormalized(wordCount.getWord(), wordCount.getCount());
+        }
+    }
+
+    @Override
+    public List<WordCount> getStatistics() {
+        var words = new String[size + unpacked.size()];
+        var wordCounts = new int[words.length];
+        var chars = new char[10];
+        int index = 0;
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) continue;
+            words[index] = unpack(keys[i], tails[i], chars);
+            wordCounts[index++] = counts[i];
+        }
+        for (var entry : unpacked.entrySet()) {
+            words[index] = entry.getKey();
+            wordCounts[index++] = entry.getValue();
+        }
+        return WordCountList.sortedByFrequency(words, wordCounts, index);
+    }
+
+    private void count(CharSequence text, int from, int to) {
+        int i = from;
+        while (i < to && Character.isWhitespace(text.charAt(i)))
+            i++;
+        if (i == to) return;
+
+        int end = Math.min(to, from + 10);
+        long key = 0;
+        int tail = 0;
+        for (i = from; i < end; i++) {
+            char c = text.charAt(i);
+            int code = c < FOLDED_CODES.length ? FOLDED_CODES[c] : 0;
+            if (code == 0) {
+                addUnpacked(text.subSequence(from, end).toString());
+                return;
+            }
+            if (i - from < CHARS_IN_FIRST_KEY) key |= (long) code << (BITS_PER_CHAR * (i - from));
+            else tail = code;
+        }
+        increment(key, (byte) tail, 1);
+    }
+
+    private void addUnpacked(String word) {
+        addNormalized(WordNormalizer.normalize(word), 1);
+    }
+
+    private void addNormalized(String lowerWord, int count) {
+        // После приведения к нижнему регистру слово может оказаться упаковываемым, храним его только в одном месте
+        if (lowerWord.length() <= 10) {
+            long key = 0;
+            int tail = 0;
+            int i = 0;
+            for (; i < lowerWord.length(); i++) {
+                char c = lowerWord.charAt(i);
+                int code = c < CODES.length ? CODES[c] : 0;
+                if (code == 0) break;
+                if (i < CHARS_IN_FIRST_KEY) key |= (long) code << (BITS_PER_CHAR * i);
+                else tail = code;
+            }
+            if (i == lowerWord.length()) {
+                increment(key, (byte) tail, count);
+                return;
+            }
+        }
+
+        unpacked.merge(lowerWord, count, Integer::sum);
+    }
+
+    private void increment(long key, byte tail, int count) {
+        int mask = counts.length - 1;
+        int index = hash(key, tail) & mask;
+        while (counts[index] != 0) {
+            if (keys[index] == key && tails[index] == tail) {
+                counts[index] += count;
+                return;
+            }
+            index = (index + 1) & mask;
+        }
+        keys[index] = key;
+        tails[index] = tail;
+        counts[index] = count;
+        if (++size > counts.length * 3 / 4)
+            resize();
+    }
+
+    private void resize() {
+        var oldKeys = keys;
+        var oldTails = tails;
+        var oldCounts = counts;
+        keys = new long[oldCounts.length * 2];
+        tails = new byte[oldCounts.length * 2];
+        counts = new int[oldCounts.length * 2];
+        int mask = counts.length - 1;
+        for (int i = 0; i < oldCounts.length; i++) {
+            if (oldCounts[i] == 0) continue;
+            int index = hash(oldKeys[i], oldTails[i]) & mask;
+            while (counts[index] != 0)
+                index = (index + 1) & mask;
+            keys[index] = oldKeys[i];
+            tails[index] = oldTails[i];
+            counts[index] = oldCounts[i];
+        }
+    }
+
+    private static int hash(long key, byte tail) {
+        long h = (key ^ ((long) tail << 57)) * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static String unpack(long key, byte tail, char[] chars) {
+        int length = 0;
+        for (; length < CHARS_IN_FIRST_KEY; length++) {
+            int code = (int) (key >>> (BITS_PER_CHAR * length)) & 0x7F;
+            if (code == 0) break;
+            chars[length] = CHARS[code];
+        }
+        if (tail != 0)
+            chars[length++] = CHARS[tail];
+        return new String(chars, 0, length);
+    }
+}
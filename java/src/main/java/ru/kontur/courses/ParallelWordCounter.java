@@ -0,0 +1,153 @@
+package ru.kontur.courses;
+
+import ru.kontur.courses.io.MappedFileTokenizer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Параллельный подсчет слов большого текста: вход режется на куски по границам слов,
+ * каждый кусок считается в собственный WordStatisticImpl в ForkJoinPool, частичные результаты сливаются деревом.
+ * Результат совпадает с последовательным addWord для всех слов текста, разделенных пробельными символами.
+ */
+public class ParallelWordCounter {
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+    private final MappedFileTokenizer tokenizer = new MappedFileTokenizer();
+
+    public ParallelWordCounter() {
+        this(ForkJoinPool.commonPool(), 1024 * 1024);
+    }
+
+    public ParallelWordCounter(ForkJoinPool pool, int chunkSize) {
+        if (pool == null || chunkSize <= 0) throw new IllegalArgumentException();
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+    }
+
+    public WordStatisticImpl count(CharSequence text) {
+        if (text == null) throw new IllegalArgumentException();
+
+        var bounds = new ArrayList<Long>();
+        bounds.add(0L);
+        int position = 0;
+        while (position < text.length()) {
+            position = (int) Math.min(text.length(), (long) position + chunkSize);
+            while (position < text.length() && !Character.isWhitespace(text.charAt(position)))
+                position++;
+            bounds.add((long) position);
+        }
+
+        return pool.invoke(new CountTask(bounds, 0, bounds.size() - 1, (from, to, statistics) -> {
+            int start = -1;
+            for (int i = (int) from; i < to; i++) {
+                if (!Character.isWhitespace(text.charAt(i))) {
+                    if (start < 0) start = i;
+                } else if (start >= 0) {
+                    statistics.addWord(text, start, i);
+                    start = -1;
+                }
+            }
+            if (start >= 0)
+                statistics.addWord(text, start, (int) to);
+        }));
+    }
+
+    public WordStatisticImpl count(Path path) throws IOException {
+        if (path == null) throw new IllegalArgumentException();
+
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            var bounds = new ArrayList<Long>();
+            bounds.add(0L);
+            long size = channel.size();
+            long position = 0;
+            var buffer = ByteBuffer.allocate(8192);
+            while (position < size) {
+                position = nextWhitespace(channel, Math.min(size, position + chunkSize), buffer);
+                bounds.add(position);
+            }
+
+            try {
+                return pool.invoke(new CountTask(bounds, 0, bounds.size() - 1,
+                        (from, to, statistics) -> tokenizer.tokenize(channel, from, to, statistics)));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * Ищет ASCII-пробел: такие байты в UTF-8 не встречаются внутри многобайтных символов
+     */
+    private static long nextWhitespace(FileChannel channel, long position, ByteBuffer buffer) throws IOException {
+        long size = channel.size();
+        while (position < size) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) return size;
+            for (int i = 0; i < read; i++) {
+                if (Character.isWhitespace(buffer.get(i)))
+                    return position + i;
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    private interface ChunkCounter {
+        void count(long from, long to, WordStatistics statistics) throws IOException;
+    }
+
+    @SuppressWarnings("serial") // задачи не сериализуются, ForkJoinTask Serializable только по наследству
+    private static class CountTask extends RecursiveTask<WordStatisticImpl> {
+        private final List<Long> bounds;
+        private final int fromChunk;
+        private final int toChunk;
+        private final ChunkCounter counter;
+
+        CountTask(List<Long> bounds, int fromChunk, int toChunk, ChunkCounter counter) {
+            this.bounds = bounds;
+            this.fromChunk = fromChunk;
+            this.toChunk = toChunk;
+            this.counter = counter;
+        }
+
+        @Override
+        protected WordStatisticImpl compute() {
+            if (toChunk - fromChunk <= 1) {
+                var statistics = new WordStatisticImpl();
+                if (toChunk > fromChunk) {
+                    try {
+                        counter.count(bounds.get(fromChunk), bounds.get(toChunk), statistics);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+                return statistics;
+            }
+
+            int middle = (fromChunk + toChunk) >>> 1;
+            var left = new CountTask(bounds, fromChunk, middle, counter);
+            left.fork();
+            var right = new CountTask(bounds, middle, toChunk, counter).compute();
+            return merge(left.join(), right);
+        }
+
+        private static WordStatisticImpl merge(WordStatisticImpl left, WordStatisticImpl right) {
+            if (left.statistics.size() < right.statistics.size()) {
+                right.merge(left);
+                return right;
+            }
+            left.merge(right);
+            return left;
+        }
+    }
+}
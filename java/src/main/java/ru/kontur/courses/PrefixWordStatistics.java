@@ -0,0 +1,174 @@
+package ru.kontur.courses;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Статистика в префиксном дереве нормализованных слов для запросов вида «самые частые слова на префикс».
+ * getStatisticsByPrefix обходит только поддерево префикса. Узел запоминает первые CACHED_TOP слов своего
+ * поддерева и собирает их из топов детей, поэтому повторный запрос по горячему префиксу почти бесплатен,
+ * а добавление слова сбрасывает кеш только на пути от корня до слова. Запросы с limit больше CACHED_TOP
+ * считаются без кеша: копия такого топа в каждом узле пути заняла бы памяти порядка длины слова на словарь.
+ * Не потокобезопасна.
+ */
+public class PrefixWordStatistics implements WordStatistics {
+    static final int CACHED_TOP = 64;
+
+    private final Node root = new Node();
+    private int size;
+
+    @Override
+    public void addWord(String word) {
+        if (word == null) throw new IllegalArgumentException();
+        String lowerWord = WordNormalizer.normalize(word);
+        if (lowerWord != null)
+            add(lowerWord, 1);
+    }
+
+    @Override
+    public void addWord(String word, int count) {
+        if (word == null || count < 0) throw new IllegalArgumentException();
+        String lowerWord = WordNormalizer.normalize(word);
+        if (lowerWord != null && count > 0)
+            add(lowerWord, count);
+    }
+
+    @Override
+    public void merge(WordStatistics other) {
+        if (other == null) throw new IllegalArgumentException();
+        for (var wordCount : other.getStatistics()) {
+            if (wordCount.getCount() > 0)
+                add(wordCount.getWord(), wordCount.getCount());
+        }
+    }
+
+    @Override
+    public List<WordCount> getStatistics() {
+        var words = new String[size];
+        var counts = new int[size];
+        collect(root, words, counts, 0);
+        return WordCountList.sortedByFrequency(words, counts, size);
+    }
+
+    @Override
+    public List<WordCount> getTop(int n) {
+        if (n < 0) throw new IllegalArgumentException();
+        return limit(top(root, n), n);
+    }
+
+    /**
+     * Первые limit слов, начинающихся с prefix, в порядке getStatistics.
+     * Префикс нормализуется так же, как слова: обрезается до 10 символов и приводится к нижнему регистру.
+     */
+    public List<WordCount> getStatisticsByPrefix(String prefix, int limit) {
+        if (prefix == null || limit < 0) throw new IllegalArgumentException();
+        String lowerPrefix = prefix.isBlank()
+                ? prefix.substring(0, Math.min(prefix.length(), WordNormalizer.MAX_LENGTH))
+                : WordNormalizer.normalize(prefix);
+
+        var node = root;
+        for (int i = 0; i < lowerPrefix.length() && node != null; i++)
+            node = node.child(lowerPrefix.charAt(i));
+        return node == null ? WordCountList.empty() : limit(top(node, limit), limit);
+    }
+
+    private void add(String lowerWord, int count) {
+        var node = root;
+        node.top = null;
+        for (int i = 0; i < lowerWord.length(); i++) {
+            node = node.childOrAdd(lowerWord.charAt(i));
+            node.top = null;
+        }
+        if (node.count == 0) {
+            node.word = lowerWord;
+            size++;
+        }
+        node.count += count;
+    }
+
+    /**
+     * Топ поддерева не короче limit, если в поддереве хватает слов; до CACHED_TOP кешируется в узле
+     */
+    private static WordCountList top(Node node, int limit) {
+        boolean cached = limit <= CACHED_TOP;
+        if (cached) limit = CACHED_TOP;
+        // Кеш короче CACHED_TOP содержит все поддерево и годится для любого limit
+        if (node.top != null && (cached || node.top.size() < CACHED_TOP))
+            return node.top;
+
+        int candidates = node.count > 0 ? 1 : 0;
+        var childTops = new WordCountList[node.size];
+        for (int i = 0; i < node.size; i++) {
+            childTops[i] = top(node.children[i], limit);
+            candidates += Math.min(limit, childTops[i].size());
+        }
+
+        var words = new String[candidates];
+        var counts = new int[candidates];
+        int index = 0;
+        if (node.count > 0) {
+            words[index] = node.word;
+            counts[index++] = node.count;
+        }
+        for (var childTop : childTops) {
+            for (int i = 0; i < Math.min(limit, childTop.size()); i++) {
+                words[index] = childTop.getWord(i);
+                counts[index++] = childTop.getCount(i);
+            }
+        }
+        var top = WordCountList.sortedByFrequency(words, counts, index);
+        if (top.size() > limit)
+            top = top.subList(0, limit);
+        if (cached) node.top = top;
+        return top;
+    }
+
+    private static List<WordCount> limit(WordCountList top, int limit) {
+        return top.size() <= limit ? top : top.subList(0, limit);
+    }
+
+    private static int collect(Node node, String[] words, int[] counts, int index) {
+        if (node.count > 0) {
+            words[index] = node.word;
+            counts[index++] = node.count;
+        }
+        for (int i = 0; i < node.size; i++)
+            index = collect(node.children[i], words, counts, index);
+        return index;
+    }
+
+    private static final class Node {
+        private static final char[] NO_KEYS = new char[0];
+        private static final Node[] NO_CHILDREN = new Node[0];
+
+        private char[] keys = NO_KEYS;
+        private Node[] children = NO_CHILDREN;
+        private int size;
+        private String word;
+        private int count;
+        private WordCountList top;
+
+        Node child(char key) {
+            int index = Arrays.binarySearch(keys, 0, size, key);
+            return index >= 0 ? children[index] : null;
+        }
+
+        Node childOrAdd(char key) {
+            int index = Arrays.binarySearch(keys, 0, size, key);
+            if (index >= 0) return children[index];
+
+            index = -index - 1;
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, Math.max(2, size * 2));
+                children = Arrays.copyOf(children, keys.length);
+            }
+            System.arraycopy(keys, index, keys, index + 1, size - index);
+            System.arraycopy(children, index, children, index + 1, size - index);
+            var child = new Node();
+            keys[index] = key;
+            children[index] = child;
+            size++;
+            return child;
+        }
+    }
+}
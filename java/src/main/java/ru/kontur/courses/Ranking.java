@@ -0,0 +1,126 @@
+package ru.kontur.courses;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.ToIntFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Частичное упорядочивание статистики в порядке WordCount.BY_FREQUENCY без полной сортировки словаря
+ */
+final class Ranking {
+    private Ranking() {
+    }
+
+    /**
+     * Первые n слов через ограниченную кучу: O(distinct · log n), WordCount создается только для попавших в кучу
+     */
+    static <V> List<WordCount> top(Collection<Map.Entry<String, V>> entries, ToIntFunction<V> counter, int n) {
+        if (n < 0) throw new IllegalArgumentException();
+        if (n == 0) return List.of();
+
+        var heap = new PriorityQueue<WordCount>(Math.min(n, entries.size()) + 1, WordCount.BY_FREQUENCY.reversed());
+        for (var entry : entries) {
+            int count = counter.applyAsInt(entry.getValue());
+            if (count == 0) continue;
+            if (heap.size() < n) {
+                heap.add(new WordCount(entry.getKey(), count));
+                continue;
+            }
+            var worst = heap.peek();
+            if (count > worst.getCount() || count == worst.getCount() && entry.getKey().compareTo(worst.getWord()) < 0) {
+                heap.poll();
+                heap.add(new WordCount(entry.getKey(), count));
+            }
+        }
+
+        var result = new ArrayList<>(heap);
+        result.sort(WordCount.BY_FREQUENCY);
+        return List.copyOf(result);
+    }
+
+    /**
+     * Ленивый упорядоченный поток: снимок словаря превращается в кучу за O(distinct),
+     * каждый следующий элемент стоит O(log distinct)
+     */
+    static <V> Stream<WordCount> stream(Collection<Map.Entry<String, V>> entries, ToIntFunction<V> counter) {
+        var words = new String[entries.size()];
+        var counts = new int[entries.size()];
+        int size = 0;
+        for (var entry : entries) {
+            if (size == words.length) break;
+            int count = counter.applyAsInt(entry.getValue());
+            if (count == 0) continue;
+            words[size] = entry.getKey();
+            counts[size++] = count;
+        }
+
+        var iterator = new HeapIterator(words, counts, size);
+        return StreamSupport.stream(Spliterators.spliterator(iterator, size,
+                Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE), false);
+    }
+
+    private static class HeapIterator implements Iterator<WordCount> {
+        private final String[] words;
+        private final int[] counts;
+        private int size;
+
+        HeapIterator(String[] words, int[] counts, int size) {
+            this.words = words;
+            this.counts = counts;
+            this.size = size;
+            for (int i = size / 2 - 1; i >= 0; i--)
+                siftDown(i);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return size > 0;
+        }
+
+        @Override
+        public WordCount next() {
+            if (size == 0) throw new NoSuchElementException();
+            var result = new WordCount(words[0], counts[0]);
+            size--;
+            swap(0, size);
+            words[size] = null;
+            siftDown(0);
+            return result;
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int best = i;
+                int left = 2 * i + 1;
+                int right = left + 1;
+                if (left < size && precedes(left, best)) best = left;
+                if (right < size && precedes(right, best)) best = right;
+                if (best == i) return;
+                swap(i, best);
+                i = best;
+            }
+        }
+
+        private boolean precedes(int a, int b) {
+            return counts[a] != counts[b] ? counts[a] > counts[b] : words[a].compareTo(words[b]) < 0;
+        }
+
+        private void swap(int a, int b) {
+            var word = words[a];
+            words[a] = words[b];
+            words[b] = word;
+            var count = counts[a];
+            counts[a] = counts[b];
+            counts[b] = count;
+        }
+    }
+}
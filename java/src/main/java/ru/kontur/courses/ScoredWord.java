@@ -0,0 +1,42 @@
+package ru.kontur.courses;
+
+/**
+ * Неизменяемая пара слово-вес, где вес дробный (например, частота с затуханием).
+ * Не наследует WordCount: вес не частота, и такие пары не должны совпадать с WordCount в getStatistics
+ */
+public class ScoredWord {
+    private final String word;
+    private final double score;
+
+    public ScoredWord(String word, double score) {
+        this.word = word;
+        this.score = score;
+    }
+
+    public String getWord() {
+        return word;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ScoredWord scoredWord = (ScoredWord) o;
+        return Double.compare(score, scoredWord.score) == 0
+                && (word == null ? scoredWord.word == null : word.equals(scoredWord.word));
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (word == null ? 0 : word.hashCode()) + Double.hashCode(score);
+    }
+
+    @Override
+    public String toString() {
+        return word + "=" + score;
+    }
+}
@@ -0,0 +1,85 @@
+package ru.kontur.courses;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Приближенная статистика с ограниченной памятью (алгоритм Space-Saving): хранится не больше capacity слов.
+ * Новое слово при заполненной таблице вытесняет самое редкое и наследует его частоту как ошибку.
+ * Любое слово, встретившееся больше total / capacity раз, гарантированно присутствует в статистике,
+ * а его частота завышена не больше чем на getError(word).
+ */
+public class SpaceSavingWordStatistics implements WordStatistics {
+    private final int capacity;
+    private final FrequencyBuckets buckets = new FrequencyBuckets();
+    private final Map<String, Integer> errors = new HashMap<>();
+
+    public SpaceSavingWordStatistics(int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException();
+        this.capacity = capacity;
+    }
+
+    @Override
+    public void addWord(String word) {
+        String lowerWord = WordNormalizer.normalize(word);
+        if (lowerWord != null)
+            count(lowerWord, 1);
+    }
+
+    @Override
+    public void addWord(String word, int count) {
+        if (word == null || count < 0) throw new IllegalArgumentException();
+        String lowerWord = WordNormalizer.normalize(word);
+        if (lowerWord != null && count > 0)
+            count(lowerWord, count);
+    }
+
+    /**
+     * Частоты other считаются как взвешенные события; ошибки other в оценку не переносятся
+     */
+    @Override
+    public void merge(WordStatistics other) {
+        if (other == null) throw new IllegalArgumentException();
+        for (var wordCount : other.getStatistics()) {
+            if (wordCount.getCount() > 0)
+                count(wordCount.getWord(), wordCount.getCount());
+        }
+    }
+
+    /**
+     * Отслеживаемые слова в порядке WordCount.BY_FREQUENCY с оценками частоты сверху
+     */
+    @Override
+    public List<WordCount> getStatistics() {
+        return getTop(Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<WordCount> getTop(int n) {
+        return buckets.top(n);
+    }
+
+    /**
+     * На сколько может быть завышена частота слова из getStatistics: настоящая лежит в [count - error, count].
+     * Для слов, которых в статистике нет, 0
+     */
+    public int getError(String word) {
+        if (word == null) throw new IllegalArgumentException();
+        return errors.getOrDefault(word, 0);
+    }
+
+    private void count(String lowerWord, int count) {
+        if (buckets.count(lowerWord) > 0 || buckets.size() < capacity) {
+            buckets.increment(lowerWord, count);
+            return;
+        }
+
+        var victim = buckets.lowestWord();
+        int minimum = buckets.count(victim);
+        buckets.remove(victim);
+        errors.remove(victim);
+        buckets.add(lowerWord, minimum + count);
+        errors.put(lowerWord, minimum);
+    }
+}
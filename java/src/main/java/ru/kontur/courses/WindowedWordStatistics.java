@@ -0,0 +1,158 @@
+package ru.kontur.courses;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Статистика за скользящее окно времени. Время делится на эпохи длины epochLength,
+ * частоты каждой из последних epochs эпох хранятся в кольцевом буфере, поэтому запрос за окно
+ * стоит O(словаря эпох окна), а не O(числа событий). Окно округляется вверх до целого числа эпох,
+ * включая текущую, еще не закончившуюся.
+ * Время берется из Clock, что позволяет подменить его в тестах.
+ */
+public class WindowedWordStatistics implements WordStatistics {
+    private static final Comparator<ScoredWord> BY_SCORE = Comparator
+            .comparingDouble(ScoredWord::getScore)
+            .reversed()
+            .thenComparing(ScoredWord::getWord);
+
+    private final Clock clock;
+    private final long epochMillis;
+    private final List<Map<String, Integer>> counts;
+    private final long[] slotEpochs;
+    private long lastEpoch = Long.MIN_VALUE;
+
+    public WindowedWordStatistics(Clock clock, Duration epochLength, int epochs) {
+        if (clock == null || epochLength == null || epochLength.toMillis() <= 0 || epochs <= 0)
+            throw new IllegalArgumentException();
+        this.clock = clock;
+        this.epochMillis = epochLength.toMillis();
+        this.counts = new ArrayList<>(epochs);
+        this.slotEpochs = new long[epochs];
+        for (int i = 0; i < epochs; i++) {
+            counts.add(new HashMap<>());
+            slotEpochs[i] = Long.MIN_VALUE;
+        }
+    }
+
+    public Duration getRetention() {
+        return Duration.ofMillis(epochMillis * slotEpochs.length);
+    }
+
+    @Override
+    public void addWord(String word) {
+        String lowerWord = WordNormalizer.normalize(word);
+        if (lowerWord != null)
+            currentCounts().merge(lowerWord, 1, Integer::sum);
+    }
+
+    @Override
+    public void addWord(String word, int count) {
+        if (word == null || count < 0) throw new IllegalArgumentException();
+        String lowerWord = WordNormalizer.normalize(word);
+        if (lowerWord != null && count > 0)
+            currentCounts().merge(lowerWord, count, Integer::sum);
+    }
+
+    /**
+     * Частоты other целиком попадают в текущую эпоху
+     */
+    @Override
+    public void merge(WordStatistics other) {
+        if (other == null) throw new IllegalArgumentException();
+        var statistics = other.getStatistics();
+        var current = currentCounts();
+        for (var wordCount : statistics) {
+            if (wordCount.getCount() > 0)
+                current.merge(wordCount.getWord(), wordCount.getCount(), Integer::sum);
+        }
+    }
+
+    /**
+     * Статистика за все хранимые эпохи
+     */
+    @Override
+    public List<WordCount> getStatistics() {
+        return getStatistics(getRetention());
+    }
+
+    /**
+     * Статистика за последние window, округленные вверх до целого числа эпох; window не больше getRetention()
+     */
+    public List<WordCount> getStatistics(Duration window) {
+        if (window == null || window.isNegative() || window.isZero() || window.compareTo(getRetention()) > 0)
+            throw new IllegalArgumentException();
+
+        long epochsInWindow = (window.toMillis() + epochMillis - 1) / epochMillis;
+        long epoch = currentEpoch();
+        var result = new HashMap<String, Integer>();
+        for (long age = 0; age < epochsInWindow; age++) {
+            var epochCounts = countsOf(epoch - age);
+            if (epochCounts != null)
+                epochCounts.forEach((word, count) -> result.merge(word, count, Integer::sum));
+        }
+
+        var words = new String[result.size()];
+        var wordCounts = new int[result.size()];
+        int size = 0;
+        for (var entry : result.entrySet()) {
+            words[size] = entry.getKey();
+            wordCounts[size++] = entry.getValue();
+        }
+        return WordCountList.sortedByFrequency(words, wordCounts, size);
+    }
+
+    /**
+     * Частоты с экспоненциальным затуханием: вклад эпохи возраста age уменьшается вдвое каждые halfLife.
+     * Результат упорядочен по убыванию веса, при равенстве — по алфавиту.
+     */
+    public List<ScoredWord> getDecayedStatistics(Duration halfLife) {
+        if (halfLife == null || halfLife.isNegative() || halfLife.isZero()) throw new IllegalArgumentException();
+
+        long epoch = currentEpoch();
+        var scores = new HashMap<String, Double>();
+        for (long age = 0; age < slotEpochs.length; age++) {
+            var epochCounts = countsOf(epoch - age);
+            if (epochCounts == null) continue;
+            double weight = Math.pow(0.5, (double) (age * epochMillis) / halfLife.toMillis());
+            epochCounts.forEach((word, count) -> scores.merge(word, count * weight, Double::sum));
+        }
+
+        var result = new ArrayList<ScoredWord>(scores.size());
+        scores.forEach((word, score) -> result.add(new ScoredWord(word, score)));
+        result.sort(BY_SCORE);
+        return List.copyOf(result);
+    }
+
+    private Map<String, Integer> currentCounts() {
+        long epoch = currentEpoch();
+        int slot = slot(epoch);
+        if (slotEpochs[slot] != epoch) {
+            counts.get(slot).clear();
+            slotEpochs[slot] = epoch;
+        }
+        return counts.get(slot);
+    }
+
+    private Map<String, Integer> countsOf(long epoch) {
+        int slot = slot(epoch);
+        return slotEpochs[slot] == epoch ? counts.get(slot) : null;
+    }
+
+    /**
+     * Номер текущей эпохи; не уменьшается, даже если часы перевели назад
+     */
+    private long currentEpoch() {
+        lastEpoch = Math.max(lastEpoch, Math.floorDiv(clock.millis(), epochMillis));
+        return lastEpoch;
+    }
+
+    private int slot(long epoch) {
+        return (int) Math.floorMod(epoch, (long) slotEpochs.length);
+    }
+}
@@ -1,10 +1,21 @@
 package ru.kontur.courses;
 
-import java.util.Objects;
+import java.util.Comparator;
 
+/**
+ * Неизменяемая пара слово-частота
+ */
 public class WordCount {
-    private String word;
-    private int count;
+    /**
+     * Порядок, в котором getStatistics возвращает слова: по убыванию частоты, при равенстве — по алфавиту
+     */
+    public static final Comparator<WordCount> BY_FREQUENCY = Comparator
+            .comparing(WordCount::getCount)
+            .reversed()
+            .thenComparing(WordCount::getWord);
+
+    private final String word;
+    private final int count;
 
     public WordCount(String word, int count) {
         this.word = word;
@@ -15,28 +26,25 @@ public class WordCount {
         return word;
     }
 
-    public void setWord(String word) {
-        this.word = word;
-    }
-
     public int getCount() {
         return count;
     }
 
-    public void setCount(int count) {
-        this.count = count;
-    }
-
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         WordCount wordCount = (WordCount) o;
-        return count == wordCount.count && Objects.equals(word, wordCount.word);
+        return count == wordCount.count && (word == null ? wordCount.word == null : word.equals(wordCount.word));
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(word, count);
+        return 31 * (word == null ? 0 : word.hashCode()) + count;
+    }
+
+    @Override
+    public String toString() {
+        return word + "=" + count;
     }
 }
@@ -0,0 +1,99 @@
+package ru.kontur.courses;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * Неизменяемый результат getStatistics в колоночном виде: слова и частоты в параллельных массивах.
+ * WordCount создается только при обращении к элементу; getWord(i) и getCount(i) обходятся без аллокаций.
+ */
+public final class WordCountList extends AbstractList<WordCount> implements RandomAccess {
+    private static final WordCountList EMPTY = new WordCountList(new String[0], new int[0], 0);
+
+    private final String[] words;
+    private final int[] counts;
+    private final int size;
+
+    private WordCountList(String[] words, int[] counts, int size) {
+        this.words = words;
+        this.counts = counts;
+        this.size = size;
+    }
+
+    public static WordCountList empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Сортирует первые size элементов массивов в порядке WordCount.BY_FREQUENCY и забирает массивы себе
+     */
+    static WordCountList sortedByFrequency(String[] words, int[] counts, int size) {
+        if (size == 0) return EMPTY;
+        FrequencySort.sort(words, counts, size);
+        return new WordCountList(words, counts, size);
+    }
+
+    /**
+     * Оборачивает массивы без копирования и сортировки; для getStatistics они должны быть упорядочены
+     * в порядке WordCount.BY_FREQUENCY
+     */
+    static WordCountList ofSorted(String[] words, int[] counts, int size) {
+        return inOrder(words, counts, size);
+    }
+
+    /**
+     * Оборачивает массивы без копирования в том порядке, в каком они лежат; такой список годится не для
+     * getStatistics, а, например, для списков, упорядоченных по словам
+     */
+    static WordCountList inOrder(String[] words, int[] counts, int size) {
+        return size == 0 ? EMPTY : new WordCountList(words, counts, size);
+    }
+
+    public String getWord(int index) {
+        return words[checkIndex(index)];
+    }
+
+    public int getCount(int index) {
+        return counts[checkIndex(index)];
+    }
+
+    @Override
+    public WordCount get(int index) {
+        checkIndex(index);
+        return new WordCount(words[index], counts[index]);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public WordCountList subList(int fromIndex, int toIndex) {
+        if (fromIndex < 0 || fromIndex > toIndex || toIndex > size) throw new IndexOutOfBoundsException();
+        if (fromIndex == 0 && toIndex == size) return this;
+        return ofSorted(Arrays.copyOfRange(words, fromIndex, toIndex), Arrays.copyOfRange(counts, fromIndex, toIndex),
+                toIndex - fromIndex);
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        if (!(o instanceof WordCount wordCount) || o.getClass() != WordCount.class) return -1;
+        for (int i = 0; i < size; i++) {
+            if (counts[i] == wordCount.getCount() && words[i].equals(wordCount.getWord()))
+                return i;
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(o) >= 0;
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException(index);
+        return index;
+    }
+}
@@ -0,0 +1,44 @@
+package ru.kontur.courses;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Потокобезопасный словарь нормализованных слов, присваивающий им плотные int-идентификаторы 0, 1, 2, ...
+ * Слова только добавляются, идентификатор слова никогда не меняется, поэтому один словарь можно разделять
+ * между многими DictionaryWordStatistics: каждое слово хранится в памяти один раз.
+ */
+public final class WordDictionary {
+    private final ConcurrentMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private volatile String[] words = new String[1024];
+    private int size;
+
+    public int id(String word) {
+        if (word == null) throw new IllegalArgumentException();
+        var id = ids.get(word);
+        return id != null ? id : add(word);
+    }
+
+    public String word(int id) {
+        // Идентификатор получен из ids, а слово записано в массив до публикации в ids
+        var current = words;
+        if (id < 0 || id >= current.length || current[id] == null) throw new IllegalArgumentException("Неизвестный идентификатор " + id);
+        return current[id];
+    }
+
+    public int size() {
+        return ids.size();
+    }
+
+    private synchronized int add(String word) {
+        var id = ids.get(word);
+        if (id != null) return id;
+
+        if (size == words.length)
+            words = Arrays.copyOf(words, size * 2);
+        words[size] = word;
+        ids.put(word, size);
+        return size++;
+    }
+}
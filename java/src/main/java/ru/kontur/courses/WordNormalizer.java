@@ -0,0 +1,93 @@
+package ru.kontur.courses;
+
+import java.util.Locale;
+
+/**
+ * Нормализация слова по правилам WordStatisticImpl: пустое (из пробельных символов) слово пропускается,
+ * слово обрезается до первых 10 символов и приводится к нижнему регистру через toLowerCase().
+ * Латиница и кириллица (включая ё) обрабатываются за один проход по таблице; если слово уже нормализовано,
+ * возвращается сама входная строка. Остальные символы, в том числе суррогатные пары (которые обрезка может разрезать),
+ * обрабатываются через substring и toLowerCase, поэтому результат всегда совпадает с ними.
+ */
+public final class WordNormalizer {
+    public static final int MAX_LENGTH = 10;
+
+    /** Нижний регистр символа, не зависящий от локали и контекста; 0 — нужен медленный путь */
+    private static final char[] FOLD = new char[0x500];
+
+    static {
+        var locales = new Locale[]{Locale.forLanguageTag("tr"), Locale.forLanguageTag("az"), Locale.forLanguageTag("lt")};
+        for (char c = 1; c < FOLD.length; c++) {
+            // Сигма в конце слова зависит от контекста
+            if (c == 'Σ' || Character.isSurrogate(c)) continue;
+            var lower = String.valueOf(c).toLowerCase(Locale.ROOT);
+            var localeIndependent = true;
+            for (var locale : locales)
+                localeIndependent &= lower.equals(String.valueOf(c).toLowerCase(locale));
+            if (localeIndependent && lower.length() == 1)
+                FOLD[c] = lower.charAt(0);
+        }
+    }
+
+    private WordNormalizer() {
+    }
+
+    /**
+     * Нормализованное слово или null, если слово пустое
+     */
+    public static String normalize(String word) {
+        if (word == null) throw new IllegalArgumentException();
+        if (word.isBlank()) return null;
+
+        int length = Math.min(word.length(), MAX_LENGTH);
+        char[] folded = null;
+        for (int i = 0; i < length; i++) {
+            char c = word.charAt(i);
+            char lower = fold(c);
+            if (lower == 0) return normalizeSlowly(word);
+            if (lower != c && folded == null) {
+                folded = new char[length];
+                word.getChars(0, i, folded, 0);
+            }
+            if (folded != null) folded[i] = lower;
+        }
+        if (folded != null) return new String(folded);
+        return length == word.length() ? word : word.substring(0, length);
+    }
+
+    /**
+     * Нормализованное слово text[from, to) или null, если слово пустое
+     */
+    public static String normalize(CharSequence text, int from, int to) {
+        if (text == null) throw new IllegalArgumentException();
+        if (from < 0 || from > to || to > text.length()) throw new IndexOutOfBoundsException();
+        if (text instanceof String word && from == 0 && to == word.length()) return normalize(word);
+
+        int i = from;
+        while (i < to && Character.isWhitespace(text.charAt(i)))
+            i++;
+        if (i == to) return null;
+
+        int end = Math.min(to, from + MAX_LENGTH);
+        var folded = new char[end - from];
+        for (i = from; i < end; i++) {
+            char lower = fold(text.charAt(i));
+            if (lower == 0) return normalizeSlowly(text.subSequence(from, end).toString());
+            folded[i - from] = lower;
+        }
+        return new String(folded);
+    }
+
+    /**
+     * Нижний регистр символа, если он не зависит от локали и соседних символов, иначе 0
+     */
+    static char fold(char c) {
+        return c < FOLD.length ? FOLD[c] : 0;
+    }
+
+    private static String normalizeSlowly(String word) {
+        if (word.length() > MAX_LENGTH)
+            word = word.substring(0, MAX_LENGTH);
+        return word.toLowerCase();
+    }
+}
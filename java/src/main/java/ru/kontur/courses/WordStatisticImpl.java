@@ -1,35 +1,131 @@
 package ru.kontur.courses;
 
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Objects;
+import java.util.stream.Stream;
 
+/**
+ * Референсная реализация. Кроме addWord(String) и getStatistics, ее методы работают с statistics напрямую,
+ * но только в самом WordStatisticImpl: наследники (в том числе из donotopen) переопределяют addWord
+ * и getStatistics, и остальные методы должны идти через переопределенные, как методы интерфейса по умолчанию,
+ * иначе ошибка наследника не проявится в тестах addWords, merge, getTop, stream и size.
+ */
 public class WordStatisticImpl implements WordStatistics {
     protected final Map<String, Integer> statistics = new HashMap<>();
+    // Можно ли обходить addWord и getStatistics, см. описание класса
+    private final boolean direct = getClass() == WordStatisticImpl.class;
 
     @Override
     public void addWord(String word) {
         if (word == null) throw new IllegalArgumentException();
         if (word.isBlank()) return;
-        if (word.length() > 10)
-            word = word.substring(0, 10);
-        String lowerWord = word.toLowerCase();
+        // Обрезка до 10 символов и приведение к нижнему регистру, как word.substring(0, 10).toLowerCase()
+        String lowerWord = WordNormalizer.normalize(word);
 
         int count = statistics.getOrDefault(lowerWord, 0);
         statistics.put(lowerWord, 1 + count);
     }
 
+    @Override
+    public void addWords(String[] words) {
+        if (direct) countAll(words);
+        else WordStatistics.super.addWords(words);
+    }
+
+    @Override
+    public void addWords(Iterable<? extends CharSequence> words) {
+        if (direct) countAll(words);
+        else WordStatistics.super.addWords(words);
+    }
+
+    @Override
+    public void addWord(CharSequence text, int from, int to) {
+        if (direct) countRange(text, from, to);
+        else WordStatistics.super.addWord(text, from, to);
+    }
+
+    @Override
+    public void addWord(String word, int count) {
+        if (direct) countTimes(word, count);
+        else WordStatistics.super.addWord(word, count);
+    }
+
+    @Override
+    public void merge(WordStatistics other) {
+        if (direct) mergeNormalized(other);
+        else WordStatistics.super.merge(other);
+    }
+
     @Override
     public List<WordCount> getStatistics() {
-        return statistics.entrySet().stream()
-                .map(it -> new WordCount(it.getKey(), it.getValue()))
-                .sorted(Comparator
-                        .comparing(WordCount::getCount)
-                        .reversed()
-                        .thenComparing(WordCount::getWord)
-                )
-                .toList();
+        var words = new String[statistics.size()];
+        var counts = new int[statistics.size()];
+        int size = 0;
+        for (var entry : statistics.entrySet()) {
+            words[size] = entry.getKey();
+            counts[size++] = entry.getValue();
+        }
+        return WordCountList.sortedByFrequency(words, counts, size);
+    }
+
+    @Override
+    public List<WordCount> getTop(int n) {
+        return direct ? Ranking.top(statistics.entrySet(), Integer::intValue, n) : WordStatistics.super.getTop(n);
+    }
+
+    @Override
+    public Stream<WordCount> stream() {
+        return direct ? Ranking.stream(statistics.entrySet(), Integer::intValue) : WordStatistics.super.stream();
+    }
+
+    @Override
+    public long size() {
+        return direct ? statistics.size() : WordStatistics.super.size();
+    }
+
+    private void countAll(String[] words) {
+        if (words == null) throw new IllegalArgumentException();
+        for (var word : words)
+            count(WordNormalizer.normalize(word), 1);
+    }
+
+    private void countAll(Iterable<? extends CharSequence> words) {
+        if (words == null) throw new IllegalArgumentException();
+        for (var word : words) {
+            if (word == null) throw new IllegalArgumentException();
+            count(WordNormalizer.normalize(word, 0, word.length()), 1);
+        }
+    }
+
+    private void countRange(CharSequence text, int from, int to) {
+        if (text == null) throw new IllegalArgumentException();
+        Objects.checkFromToIndex(from, to, text.length());
+        count(WordNormalizer.normalize(text, from, to), 1);
+    }
+
+    private void countTimes(String word, int count) {
+        if (word == null || count < 0) throw new IllegalArgumentException();
+        if (count > 0) count(WordNormalizer.normalize(word), count);
+    }
+
+    /**
+     * Переносит уже нормализованные слова как есть
+     */
+    private void mergeNormalized(WordStatistics other) {
+        if (other == null) throw new IllegalArgumentException();
+        // Наследники из donotopen хранят в statistics что угодно, напрямую читаем только саму референсную реализацию
+        if (other.getClass() == WordStatisticImpl.class) {
+            ((WordStatisticImpl) other).statistics.forEach((word, count) -> statistics.merge(word, count, Integer::sum));
+            return;
+        }
+        for (var wordCount : other.getStatistics())
+            statistics.merge(wordCount.getWord(), wordCount.getCount(), Integer::sum);
+    }
+
+    private void count(String lowerWord, int count) {
+        if (lowerWord != null)
+            statistics.merge(lowerWord, count, Integer::sum);
     }
 }
@@ -1,8 +1,74 @@
 package ru.kontur.courses;
 
 import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
 
 public interface WordStatistics {
     void addWord(String word);
     List<WordCount> getStatistics();
+
+    /**
+     * Первые n элементов getStatistics
+     */
+    default List<WordCount> getTop(int n) {
+        if (n < 0) throw new IllegalArgumentException();
+        var statistics = getStatistics();
+        return statistics.subList(0, Math.min(n, statistics.size()));
+    }
+
+    /**
+     * Элементы getStatistics в том же порядке; реализации могут строить их лениво
+     */
+    default Stream<WordCount> stream() {
+        return getStatistics().stream();
+    }
+
+    /**
+     * Число различных слов, то есть getStatistics().size(); реализации могут считать его, не строя список
+     */
+    default long size() {
+        return getStatistics().size();
+    }
+
+    default void addWords(String[] words) {
+        if (words == null) throw new IllegalArgumentException();
+        for (var word : words)
+            addWord(word);
+    }
+
+    default void addWords(Iterable<? extends CharSequence> words) {
+        if (words == null) throw new IllegalArgumentException();
+        for (var word : words)
+            addWord(word == null ? null : word.toString());
+    }
+
+    /**
+     * Добавляет слово так же, как count вызовов addWord(word)
+     */
+    default void addWord(String word, int count) {
+        if (word == null || count < 0) throw new IllegalArgumentException();
+        for (int i = 0; i < count; i++)
+            addWord(word);
+    }
+
+    /**
+     * Прибавляет к статистике частоты из other.getStatistics().
+     * Реализация по умолчанию добавляет слова через addWord(word, count), то есть нормализует их повторно;
+     * реализации этого пакета переносят уже нормализованные слова как есть.
+     */
+    default void merge(WordStatistics other) {
+        if (other == null) throw new IllegalArgumentException();
+        for (var wordCount : other.getStatistics())
+            addWord(wordCount.getWord(), wordCount.getCount());
+    }
+
+    /**
+     * Добавляет слово text[from, to) так же, как addWord(text.subSequence(from, to).toString())
+     */
+    default void addWord(CharSequence text, int from, int to) {
+        if (text == null) throw new IllegalArgumentException();
+        Objects.checkFromToIndex(from, to, text.length());
+        addWord(text.subSequence(from, to).toString());
+    }
 }
@@ -0,0 +1,203 @@
+package ru.kontur.courses;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Компактный формат для пересылки частичной статистики между узлами.
+ * Слова упорядочены по String.compareTo и закодированы с общим префиксом предыдущего слова:
+ * int MAGIC, int VERSION, varint число слов, затем для каждого слова varint длина общего префикса в символах,
+ * varint длина остатка в байтах, остаток в ModifiedUtf8, varint частота; в конце int CRC32 всех предыдущих байт.
+ */
+public final class WordStatisticsDelta {
+    static final int MAGIC = 0x57535444;
+    static final int VERSION = 1;
+
+    private WordStatisticsDelta() {
+    }
+
+    /**
+     * Записывает статистику в output; поток не закрывается
+     */
+    public static void write(WordStatistics statistics, OutputStream output) throws IOException {
+        if (statistics == null || output == null) throw new IllegalArgumentException();
+
+        var statisticsList = statistics.getStatistics();
+        var words = new String[statisticsList.size()];
+        for (int i = 0; i < words.length; i++)
+            words[i] = statisticsList.get(i).getWord();
+        Arrays.sort(words);
+        // Слова в getStatistics различны, поэтому место частоты находится двоичным поиском
+        var counts = new int[words.length];
+        for (var wordCount : statisticsList)
+            counts[Arrays.binarySearch(words, wordCount.getWord())] = wordCount.getCount();
+
+        var checksum = new CRC32();
+        var data = new DataOutputStream(new CheckedOutputStream(new BufferedOutputStream(output), checksum));
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        writeVarInt(data, words.length);
+        var bytes = new byte[3 * WordNormalizer.MAX_LENGTH];
+        String previous = "";
+        for (int index = 0; index < words.length; index++) {
+            var word = words[index];
+            int shared = sharedPrefix(previous, word);
+            int length = ModifiedUtf8.length(word, shared, word.length());
+            if (length > bytes.length)
+                bytes = new byte[length];
+            ModifiedUtf8.encode(word, shared, word.length(), bytes, 0);
+            writeVarInt(data, shared);
+            writeVarInt(data, length);
+            data.write(bytes, 0, length);
+            writeVarInt(data, counts[index]);
+            previous = word;
+        }
+        data.flush();
+        data.writeInt((int) checksum.getValue());
+        data.flush();
+    }
+
+    /**
+     * Читает одну дельту из input, не заходя за ее конец, поэтому input стоит буферизовать снаружи; результат упорядочен по словам, как нужно для mergeSorted
+     */
+    public static List<WordCount> readSorted(InputStream input) throws IOException {
+        if (input == null) throw new IllegalArgumentException();
+
+        var checksum = new CRC32();
+        var data = new DataInputStream(new CheckedInputStream(input, checksum));
+        if (data.readInt() != MAGIC) throw new IOException("Поток не является дельтой статистики");
+        int version = data.readInt();
+        if (version != VERSION) throw new IOException("Неподдерживаемая версия дельты: " + version);
+
+        int size = readVarInt(data);
+        var words = new String[size];
+        var counts = new int[size];
+        var bytes = new byte[3 * WordNormalizer.MAX_LENGTH];
+        var chars = new char[WordNormalizer.MAX_LENGTH];
+        int previousLength = 0;
+        for (int i = 0; i < size; i++) {
+            int shared = readVarInt(data);
+            int length = readVarInt(data);
+            if (shared > previousLength) throw new IOException("Некорректный общий префикс: " + shared);
+            if (length > bytes.length)
+                bytes = new byte[length];
+            if (shared + length > chars.length)
+                chars = Arrays.copyOf(chars, shared + length);
+            data.readFully(bytes, 0, length);
+            previousLength = ModifiedUtf8.decode(ByteBuffer.wrap(bytes, 0, length), length, chars, shared);
+            words[i] = new String(chars, 0, previousLength);
+            counts[i] = readVarInt(data);
+        }
+        int expected = (int) checksum.getValue();
+        if (data.readInt() != expected) throw new IOException("Неверная контрольная сумма дельты");
+        return WordCountList.inOrder(words, counts, size);
+    }
+
+    /**
+     * Читает одну дельту из input в новую статистику
+     */
+    public static WordStatisticImpl read(InputStream input) throws IOException {
+        var result = new WordStatisticImpl();
+        // Слова в дельте уже нормализованы, повторная нормализация через addWord может их изменить
+        for (var wordCount : readSorted(input))
+            result.statistics.put(wordCount.getWord(), wordCount.getCount());
+        return result;
+    }
+
+    /**
+     * k-way слияние списков, упорядоченных по словам: частоты одинаковых слов складываются,
+     * результат тоже упорядочен по словам. O(n log k) для n элементов в k списках.
+     */
+    public static List<WordCount> mergeSorted(List<? extends List<WordCount>> parts) {
+        if (parts == null) throw new IllegalArgumentException();
+
+        int total = 0;
+        var cursors = new PriorityQueue<Cursor>(Math.max(1, parts.size()), (a, b) -> a.word.compareTo(b.word));
+        for (var part : parts) {
+            if (part == null) throw new IllegalArgumentException();
+            total += part.size();
+            var cursor = new Cursor(part);
+            if (cursor.advance())
+                cursors.add(cursor);
+        }
+
+        var words = new String[total];
+        var counts = new int[total];
+        int size = 0;
+        while (!cursors.isEmpty()) {
+            var cursor = cursors.poll();
+            if (size > 0 && words[size - 1].equals(cursor.word)) {
+                counts[size - 1] += cursor.count;
+            } else {
+                words[size] = cursor.word;
+                counts[size++] = cursor.count;
+            }
+            if (cursor.advance())
+                cursors.add(cursor);
+        }
+        return WordCountList.inOrder(words, counts, size);
+    }
+
+    private static int sharedPrefix(String a, String b) {
+        int length = Math.min(a.length(), b.length());
+        int i = 0;
+        while (i < length && a.charAt(i) == b.charAt(i))
+            i++;
+        return i;
+    }
+
+    private static void writeVarInt(DataOutputStream output, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            output.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        output.write(value);
+    }
+
+    private static int readVarInt(DataInputStream input) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = input.read();
+            if (b < 0) throw new EOFException();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                if (value < 0) throw new IOException("Отрицательное значение в дельте");
+                return value;
+            }
+        }
+        throw new IOException("Слишком длинный varint");
+    }
+
+    private static final class Cursor {
+        private final List<WordCount> part;
+        private int index;
+        private String word;
+        private int count;
+
+        Cursor(List<WordCount> part) {
+            this.part = part;
+        }
+
+        boolean advance() {
+            if (index == part.size()) return false;
+            var wordCount = part.get(index++);
+            if (word != null && word.compareTo(wordCount.getWord()) >= 0)
+                throw new IllegalArgumentException("Список не упорядочен по словам: " + wordCount.getWord());
+            word = wordCount.getWord();
+            count = wordCount.getCount();
+            return true;
+        }
+    }
+}
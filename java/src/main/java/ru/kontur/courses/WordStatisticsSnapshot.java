@@ -0,0 +1,113 @@
+package ru.kontur.courses;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Бинарный снимок статистики.
+ * Формат (big-endian): int MAGIC, int VERSION, int число слов,
+ * затем для каждого слова unsigned short длина в байтах, слово в ModifiedUtf8, int частота;
+ * в конце int CRC32 всех предыдущих байт.
+ * Снимок пишется во временный файл, сбрасывается на диск и атомарно переименовывается,
+ * после чего сбрасывается и каталог, чтобы переименование пережило сбой питания.
+ */
+public final class WordStatisticsSnapshot {
+    static final int MAGIC = 0x57535453;
+    static final int VERSION = 1;
+
+    private WordStatisticsSnapshot() {
+    }
+
+    public static void write(WordStatistics statistics, Path path) throws IOException {
+        if (statistics == null || path == null) throw new IllegalArgumentException();
+
+        var words = statistics.getStatistics();
+        var temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        var checksum = new CRC32();
+        try {
+            try (var channel = FileChannel.open(temporary,
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                var output = new DataOutputStream(new CheckedOutputStream(
+                        new BufferedOutputStream(Channels.newOutputStream(channel), 64 * 1024), checksum));
+                output.writeInt(MAGIC);
+                output.writeInt(VERSION);
+                output.writeInt(words.size());
+                var bytes = new byte[64];
+                for (var word : words) {
+                    var text = word.getWord();
+                    int length = ModifiedUtf8.length(text, 0, text.length());
+                    if (length > bytes.length)
+                        bytes = new byte[length];
+                    ModifiedUtf8.encode(text, 0, text.length(), bytes, 0);
+                    output.writeShort(length);
+                    output.write(bytes, 0, length);
+                    output.writeInt(word.getCount());
+                }
+                output.flush();
+                output.writeInt((int) checksum.getValue());
+                output.flush();
+                channel.force(true);
+            }
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            // После удачного переноса временного файла уже нет, после ошибки он не нужен
+            Files.deleteIfExists(temporary);
+        }
+        syncDirectory(path.toAbsolutePath().getParent());
+    }
+
+    /**
+     * Сбрасывает на диск сам каталог, то есть создание, удаление и переименование файлов в нем.
+     * Windows не дает открыть каталог как файл, там это делает сама файловая система
+     */
+    static void syncDirectory(Path directory) throws IOException {
+        try (var channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (AccessDeniedException e) {
+            if (!System.getProperty("os.name").startsWith("Windows")) throw e;
+        }
+    }
+
+    public static WordStatisticImpl read(Path path) throws IOException {
+        if (path == null) throw new IllegalArgumentException();
+
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < 16 || size > Integer.MAX_VALUE) throw new IOException("Некорректный размер снимка: " + size);
+            var buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+            var checksum = new CRC32();
+            checksum.update(buffer.slice(0, (int) size - 4));
+            if ((int) checksum.getValue() != buffer.getInt((int) size - 4))
+                throw new IOException("Неверная контрольная сумма снимка " + path);
+            if (buffer.getInt() != MAGIC)
+                throw new IOException("Файл не является снимком статистики: " + path);
+            int version = buffer.getInt();
+            if (version != VERSION)
+                throw new IOException("Неподдерживаемая версия снимка: " + version);
+
+            int count = buffer.getInt();
+            var result = new WordStatisticImpl();
+            var chars = new char[256];
+            for (int i = 0; i < count; i++) {
+                int length = Short.toUnsignedInt(buffer.getShort());
+                if (length > chars.length)
+                    chars = new char[length];
+                var word = new String(chars, 0, ModifiedUtf8.decode(buffer, length, chars, 0));
+                // Слова в снимке уже нормализованы, повторная нормализация через addWord может их изменить
+                result.statistics.put(word, buffer.getInt());
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package ru.kontur.courses.flow;
+
+import ru.kontur.courses.WordCount;
+import ru.kontur.courses.WordStatistics;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Подписчик, складывающий слова из Flow.Publisher в статистику пачками по batchSize.
+ * Следующая пачка запрашивается только после того, как предыдущая добавлена, поэтому у издателя
+ * никогда не запрошено больше batchSize слов и быстрый издатель вынужден ждать, а не копить слова в памяти.
+ * <p>
+ * Через getRankings() раз в period публикуется getTop(top); медленный получатель пропускает снимки,
+ * а не тормозит подсчет. Последний снимок публикуется при завершении потока слов.
+ * Перед каждым периодическим снимком в статистику добавляется и недобранная пачка, так что снимки
+ * не отстают от медленного потока слов; без планировщика она добавляется при onComplete или onError.
+ * Слова копируются в onNext, поэтому издатель может переиспользовать изменяемые CharSequence.
+ * Статистика защищена собственной блокировкой подписчика: пока подписчик работает, остальные
+ * должны обращаться к ней только через getRankings().
+ */
+public class WordStatisticsSubscriber implements Flow.Subscriber<CharSequence>, AutoCloseable {
+    private final WordStatistics statistics;
+    private final int batchSize;
+    private final int top;
+    private final SubmissionPublisher<List<WordCount>> rankings = new SubmissionPublisher<>();
+    // lock защищает statistics, batch и закрытие rankings от параллельного тика планировщика
+    private final Object lock = new Object();
+    private final List<String> batch;
+    private int received;
+    private final ScheduledFuture<?> schedule;
+    private volatile Flow.Subscription subscription;
+
+    /**
+     * Подписчик без периодических снимков: getRankings() получит только итоговый
+     */
+    public WordStatisticsSubscriber(WordStatistics statistics, int batchSize, int top) {
+        this(statistics, batchSize, top, null, null);
+    }
+
+    public WordStatisticsSubscriber(WordStatistics statistics, int batchSize, int top,
+                                    ScheduledExecutorService scheduler, Duration period) {
+        if (statistics == null || batchSize <= 0 || top < 0) throw new IllegalArgumentException();
+        if ((scheduler == null) != (period == null) || period != null && (period.isNegative() || period.isZero()))
+            throw new IllegalArgumentException();
+        this.statistics = statistics;
+        this.batchSize = batchSize;
+        this.top = top;
+        this.batch = new ArrayList<>(batchSize);
+        this.schedule = scheduler == null ? null
+                : scheduler.scheduleAtFixedRate(this::tick, period.toNanos(), period.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Издатель снимков топа; завершается вместе с потоком слов или при close()
+     */
+    public Flow.Publisher<List<WordCount>> getRankings() {
+        return rankings;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        Objects.requireNonNull(subscription);
+        if (this.subscription != null) {
+            subscription.cancel();
+            return;
+        }
+        this.subscription = subscription;
+        subscription.request(batchSize);
+    }
+
+    @Override
+    public void onNext(CharSequence word) {
+        Objects.requireNonNull(word);
+        synchronized (lock) {
+            batch.add(word.toString());
+        }
+        if (++received < batchSize) return;
+
+        received = 0;
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            subscription.cancel();
+            finish(e);
+            return;
+        }
+        subscription.request(batchSize);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        Objects.requireNonNull(throwable);
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            throwable.addSuppressed(e);
+        }
+        finish(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            finish(e);
+            return;
+        }
+        publishRanking();
+        finish(null);
+    }
+
+    /**
+     * Отписывается от слов и завершает издателя снимков
+     */
+    @Override
+    public void close() {
+        var current = subscription;
+        if (current != null) current.cancel();
+        finish(null);
+    }
+
+    private void flush() {
+        // Тик планировщика работает параллельно, а реализации в общем случае не потокобезопасны
+        synchronized (lock) {
+            if (batch.isEmpty()) return;
+            statistics.addWords(batch);
+            batch.clear();
+        }
+    }
+
+    /**
+     * Выполняется в планировщике. Исключение отменило бы периодическую задачу молча, поэтому ошибка статистики
+     * завершает подписчика так же, как в onNext
+     */
+    private void tick() {
+        try {
+            flush();
+            publishRanking();
+        } catch (RuntimeException e) {
+            var current = subscription;
+            if (current != null) current.cancel();
+            finish(e);
+        }
+    }
+
+    private void publishRanking() {
+        // Под той же блокировкой, что и закрытие в finish: offer в закрытый rankings бросил бы IllegalStateException
+        synchronized (lock) {
+            if (rankings.isClosed()) return;
+            rankings.offer(statistics.getTop(top), (subscriber, dropped) -> false);
+        }
+    }
+
+    private void finish(Throwable error) {
+        if (schedule != null) schedule.cancel(false);
+        synchronized (lock) {
+            if (error == null) rankings.close();
+            else rankings.closeExceptionally(error);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package ru.kontur.courses.io;
+
+import ru.kontur.courses.WordStatistics;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Читает UTF-8 файл через memory-mapped окна и передает слова, разделенные пробельными символами,
+ * в WordStatistics.addWord(CharSequence, from, to) прямо из буфера декодера, не создавая строку на каждое слово.
+ * Пропуск пустых слов, обрезка до 10 символов и приведение к нижнему регистру остаются за WordStatistics.
+ */
+public class MappedFileTokenizer {
+    private final int windowSize;
+    private final int bufferSize;
+
+    public MappedFileTokenizer() {
+        this(64 * 1024 * 1024, 64 * 1024);
+    }
+
+    public MappedFileTokenizer(int windowSize, int bufferSize) {
+        if (windowSize < 16 || bufferSize < 16) throw new IllegalArgumentException();
+        this.windowSize = windowSize;
+        this.bufferSize = bufferSize;
+    }
+
+    public void tokenize(Path path, WordStatistics statistics) throws IOException {
+        if (path == null || statistics == null) throw new IllegalArgumentException();
+
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            tokenize(channel, 0, channel.size(), statistics);
+        }
+    }
+
+    /**
+     * Разбирает байты [from, to) канала; границы должны приходиться на границы слов
+     */
+    public void tokenize(FileChannel channel, long from, long to, WordStatistics statistics) throws IOException {
+        if (channel == null || statistics == null) throw new IllegalArgumentException();
+        if (from < 0 || from > to) throw new IllegalArgumentException();
+
+        var session = new Session(statistics, bufferSize);
+        long position = from;
+        do {
+            long length = Math.min(windowSize, to - position);
+            var window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+            session.decode(window, position + length == to);
+            // Незаконченная последовательность байт в конце окна попадет в начало следующего
+            position += window.position();
+        } while (position < to);
+        session.finish();
+    }
+
+    private static class Session {
+        private final WordStatistics statistics;
+        private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        private final CharBuffer chars;
+        private int scanFrom;
+        private int tokenStart = -1;
+        private boolean skippingLongToken;
+
+        Session(WordStatistics statistics, int bufferSize) {
+            this.statistics = statistics;
+            this.chars = CharBuffer.allocate(bufferSize);
+        }
+
+        void decode(ByteBuffer window, boolean endOfInput) {
+            while (decoder.decode(window, chars, endOfInput).isOverflow())
+                drain(false);
+        }
+
+        void finish() {
+            while (decoder.flush(chars).isOverflow())
+                drain(false);
+            drain(true);
+        }
+
+        private void drain(boolean endOfInput) {
+            chars.flip();
+            int limit = chars.limit();
+            for (int i = scanFrom; i < limit; i++) {
+                if (Character.isWhitespace(chars.get(i))) {
+                    if (tokenStart >= 0)
+                        statistics.addWord(chars, tokenStart, i);
+                    tokenStart = -1;
+                    skippingLongToken = false;
+                } else if (tokenStart < 0 && !skippingLongToken) {
+                    tokenStart = i;
+                }
+            }
+
+            if (tokenStart > 0 && !endOfInput) {
+                // Начало незаконченного слова переносим в начало буфера
+                chars.position(tokenStart);
+                chars.compact();
+                scanFrom = limit - tokenStart;
+                tokenStart = 0;
+                return;
+            }
+            if (tokenStart >= 0) {
+                // Слово длиннее буфера: значимы только первые 10 символов, остаток до пробела пропускаем
+                statistics.addWord(chars, tokenStart, limit);
+                tokenStart = -1;
+                skippingLongToken = !endOfInput;
+            }
+            chars.clear();
+            scanFrom = 0;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package ru.kontur.courses.metrics;
+
+import ru.kontur.courses.WordCount;
+import ru.kontur.courses.WordStatistics;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Декоратор, собирающий WordStatisticsMetrics вокруг любой реализации.
+ * На addWord добавляет один LongAdder.increment и проверку на пустое слово.
+ * Число различных слов не считается на запись: его знает только обернутая реализация,
+ * поэтому getDistinctWords при каждом чтении спрашивает ее size().
+ * getStatistics, getTop и stream измеряются вместе; у stream измеряется только построение потока, не его обход.
+ */
+public class InstrumentedWordStatistics implements WordStatistics {
+    private final WordStatistics statistics;
+    private final WordStatisticsMetrics metrics;
+
+    public InstrumentedWordStatistics(WordStatistics statistics) {
+        this(statistics, new WordStatisticsMetrics());
+    }
+
+    public InstrumentedWordStatistics(WordStatistics statistics, WordStatisticsMetrics metrics) {
+        if (statistics == null || metrics == null) throw new IllegalArgumentException();
+        this.statistics = statistics;
+        this.metrics = metrics;
+        metrics.distinctWords(statistics::size);
+    }
+
+    public WordStatisticsMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public void addWord(String word) {
+        metrics.addWordCalls.increment();
+        if (word == null) metrics.rejectedNullWords.increment();
+        else if (word.isBlank()) metrics.rejectedBlankWords.increment();
+        statistics.addWord(word);
+    }
+
+    @Override
+    public void addWord(String word, int count) {
+        record(word);
+        statistics.addWord(word, count);
+    }
+
+    @Override
+    public void merge(WordStatistics other) {
+        metrics.mergeCalls.increment();
+        statistics.merge(other);
+    }
+
+    @Override
+    public void addWords(String[] words) {
+        if (words != null) {
+            for (var word : words)
+                record(word);
+        }
+        statistics.addWords(words);
+    }
+
+    @Override
+    public void addWords(Iterable<? extends CharSequence> words) {
+        // Слова учитываются по мере того, как их забирает обернутая реализация: второй проход по words
+        // стоил бы времени, а одноразовый Iterable и вовсе не отдал бы слова второй раз
+        statistics.addWords(words == null ? null : () -> recording(words.iterator()));
+    }
+
+    @Override
+    public void addWord(CharSequence text, int from, int to) {
+        if (text != null && from >= 0 && from <= to && to <= text.length()) {
+            metrics.addWordCalls.increment();
+            if (isBlank(text, from, to)) metrics.rejectedBlankWords.increment();
+        }
+        statistics.addWord(text, from, to);
+    }
+
+    @Override
+    public List<WordCount> getStatistics() {
+        return measured(statistics::getStatistics);
+    }
+
+    @Override
+    public List<WordCount> getTop(int n) {
+        return measured(() -> statistics.getTop(n));
+    }
+
+    @Override
+    public Stream<WordCount> stream() {
+        return measured(statistics::stream);
+    }
+
+    @Override
+    public long size() {
+        return statistics.size();
+    }
+
+    private <T> T measured(Supplier<T> query) {
+        long allocatedBefore = WordStatisticsMetrics.allocatedBytes();
+        long start = System.nanoTime();
+        var result = query.get();
+        long nanos = System.nanoTime() - start;
+        metrics.recordStatistics(nanos, WordStatisticsMetrics.allocatedBytes() - allocatedBefore);
+        return result;
+    }
+
+    private Iterator<CharSequence> recording(Iterator<? extends CharSequence> words) {
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return words.hasNext();
+            }
+
+            @Override
+            public CharSequence next() {
+                var word = words.next();
+                record(word);
+                return word;
+            }
+        };
+    }
+
+    private void record(CharSequence word) {
+        metrics.addWordCalls.increment();
+        if (word == null) metrics.rejectedNullWords.increment();
+        else if (isBlank(word, 0, word.length())) metrics.rejectedBlankWords.increment();
+    }
+
+    private static boolean isBlank(CharSequence text, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (!Character.isWhitespace(text.charAt(i)))
+                return false;
+        }
+        return true;
+    }
+}
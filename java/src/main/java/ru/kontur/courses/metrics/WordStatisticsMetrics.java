@@ -0,0 +1,119 @@
+package ru.kontur.courses.metrics;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Счетчики InstrumentedWordStatistics без внешних зависимостей; читаются напрямую или через JMX
+ */
+public class WordStatisticsMetrics implements WordStatisticsMetricsMXBean {
+    private static final com.sun.management.ThreadMXBean THREADS = threads();
+
+    final LongAdder addWordCalls = new LongAdder();
+    final LongAdder rejectedNullWords = new LongAdder();
+    final LongAdder rejectedBlankWords = new LongAdder();
+    final LongAdder mergeCalls = new LongAdder();
+    final LongAdder statisticsCalls = new LongAdder();
+    final LongAdder statisticsAllocatedBytes = new LongAdder();
+    private final AtomicLongArray statisticsLatency = new AtomicLongArray(64);
+    private volatile LongSupplier distinctWords = () -> 0;
+
+    public void register(ObjectName name) throws JMException {
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+    }
+
+    @Override
+    public long getAddWordCalls() {
+        return addWordCalls.sum();
+    }
+
+    @Override
+    public long getAcceptedWords() {
+        return addWordCalls.sum() - rejectedNullWords.sum() - rejectedBlankWords.sum();
+    }
+
+    @Override
+    public long getRejectedNullWords() {
+        return rejectedNullWords.sum();
+    }
+
+    @Override
+    public long getRejectedBlankWords() {
+        return rejectedBlankWords.sum();
+    }
+
+    @Override
+    public long getMergeCalls() {
+        return mergeCalls.sum();
+    }
+
+    @Override
+    public long getStatisticsCalls() {
+        return statisticsCalls.sum();
+    }
+
+    @Override
+    public long getDistinctWords() {
+        return distinctWords.getAsLong();
+    }
+
+    @Override
+    public long[] getStatisticsLatencyHistogram() {
+        var result = new long[statisticsLatency.length()];
+        for (int i = 0; i < result.length; i++)
+            result[i] = statisticsLatency.get(i);
+        return result;
+    }
+
+    /**
+     * Верхняя граница корзины гистограммы, в которую попадает перцентиль; 0 если вызовов не было
+     */
+    @Override
+    public long getStatisticsLatencyPercentileNanos(double percentile) {
+        if (percentile < 0 || percentile > 100) throw new IllegalArgumentException();
+        var histogram = getStatisticsLatencyHistogram();
+        long total = 0;
+        for (var count : histogram)
+            total += count;
+        if (total == 0) return 0;
+
+        long threshold = (long) Math.ceil(total * percentile / 100);
+        long seen = 0;
+        for (int i = 0; i < histogram.length; i++) {
+            seen += histogram[i];
+            if (seen >= threshold && histogram[i] > 0)
+                return i >= 62 ? Long.MAX_VALUE : (1L << (i + 1)) - 1;
+        }
+        return Long.MAX_VALUE;
+    }
+
+    @Override
+    public long getStatisticsAllocatedBytes() {
+        return THREADS == null ? -1 : statisticsAllocatedBytes.sum();
+    }
+
+    static long allocatedBytes() {
+        return THREADS == null ? 0 : THREADS.getCurrentThreadAllocatedBytes();
+    }
+
+    void recordStatistics(long nanos, long allocatedBytes) {
+        statisticsCalls.increment();
+        statisticsLatency.incrementAndGet(63 - Long.numberOfLeadingZeros(Math.max(nanos, 1)));
+        statisticsAllocatedBytes.add(allocatedBytes);
+    }
+
+    void distinctWords(LongSupplier gauge) {
+        this.distinctWords = gauge;
+    }
+
+    private static com.sun.management.ThreadMXBean threads() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                && bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled())
+            return bean;
+        return null;
+    }
+}
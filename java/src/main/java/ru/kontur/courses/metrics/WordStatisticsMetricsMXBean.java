@@ -0,0 +1,32 @@
+package ru.kontur.courses.metrics;
+
+public interface WordStatisticsMetricsMXBean {
+    long getAddWordCalls();
+
+    long getAcceptedWords();
+
+    long getRejectedNullWords();
+
+    long getRejectedBlankWords();
+
+    long getMergeCalls();
+
+    long getStatisticsCalls();
+
+    /**
+     * Число различных слов: size() обернутой статистики в момент чтения
+     */
+    long getDistinctWords();
+
+    /**
+     * Число вызовов getStatistics, getTop и stream с длительностью в [2^i, 2^(i+1)) наносекунд
+     */
+    long[] getStatisticsLatencyHistogram();
+
+    long getStatisticsLatencyPercentileNanos(double percentile);
+
+    /**
+     * Суммарный объем памяти, выделенной в getStatistics, getTop и stream, -1 если JVM не умеет его считать
+     */
+    long getStatisticsAllocatedBytes();
+}
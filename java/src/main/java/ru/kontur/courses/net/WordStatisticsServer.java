@@ -0,0 +1,389 @@
+package ru.kontur.courses.net;
+
+import ru.kontur.courses.WordCount;
+import ru.kontur.courses.WordStatistics;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * TCP-сервер поверх потокобезопасной статистики, например ConcurrentWordStatistics.
+ * Протокол строковый, в UTF-8:
+ * <ul>
+ *     <li>строка — слово для addWord; слово, начинающееся с '/', передается с удвоенным '/';</li>
+ *     <li>"/top N" — ответ "TOP k" и k строк "частота слово", N не больше MAX_TOP;</li>
+ *     <li>"/quit" — закрыть соединение.</li>
+ * </ul>
+ * Слова подтверждаются пачками: после каждого прочитанного из сокета куска, а внутри куска через каждые
+ * MAX_BATCH слов, сервер добавляет накопленные слова через addWords и отвечает "OK n".
+ * Клиент может слать слова, не дожидаясь ответов. Ошибки в командах возвращаются строкой "ERR сообщение".
+ * <p>
+ * Вместо потока на соединение все соединения обслуживает один поток на Selector с общим буфером чтения:
+ * виртуальных потоков в Java 17 нет, а десятки тысяч платформенных потоков обходятся дороже самих соединений.
+ * Поэтому число клиентов ограничено дескрипторами, а не потоками. Пока у соединения не отправлено больше
+ * MAX_PENDING_OUTPUT байт ответов (клиент их не читает), сервер не читает и его слова: такой клиент тормозит только себя.
+ * <p>
+ * Слова добавляются из потока селектора, а "/top" считается в отдельном пуле и ответ возвращается через селектор,
+ * так что долгий getTop задерживает только запросившее его соединение: до ответа сервер не читает его следующие строки.
+ */
+public class WordStatisticsServer implements AutoCloseable {
+    static final int MAX_BATCH = 1024;
+    static final int MAX_LINE = 64 * 1024;
+    static final int MAX_PENDING_OUTPUT = 64 * 1024;
+    /**
+     * Ответ на "/top MAX_TOP" из слов по 10 символов помещается в MAX_PENDING_OUTPUT
+     */
+    static final int MAX_TOP = 1000;
+
+    private final WordStatistics statistics;
+    private final Selector selector;
+    private final ServerSocketChannel serverChannel;
+    private final Thread loop;
+    private final ExecutorService commands;
+    private final Queue<Connection> answered = new ConcurrentLinkedQueue<>();
+    private volatile boolean closed;
+
+    // Только в потоке loop: буферы, общие для всех соединений
+    private final ByteBuffer input = ByteBuffer.allocate(64 * 1024);
+    private final List<String> batch = new ArrayList<>(MAX_BATCH);
+
+    /**
+     * Слушает порт port на loopback-интерфейсе; 0 — любой свободный порт
+     */
+    public WordStatisticsServer(WordStatistics statistics, int port) throws IOException {
+        this(statistics, new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+    }
+
+    public WordStatisticsServer(WordStatistics statistics, InetSocketAddress address) throws IOException {
+        if (statistics == null || address == null) throw new IllegalArgumentException();
+        this.statistics = statistics;
+        this.selector = Selector.open();
+        this.serverChannel = ServerSocketChannel.open();
+        try {
+            serverChannel.bind(address, 1024);
+            serverChannel.configureBlocking(false);
+            serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            serverChannel.close();
+            selector.close();
+            throw e;
+        }
+
+        this.commands = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), task -> {
+            var thread = new Thread(task, "word-statistics-command-" + getPort());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.loop = new Thread(this::run, "word-statistics-server-" + getPort());
+        loop.setDaemon(true);
+        loop.start();
+    }
+
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    /**
+     * Перестает принимать соединения, закрывает открытые и дожидается потока сервера
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        selector.wakeup();
+        try {
+            loop.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        try {
+            while (!closed) {
+                selector.select();
+                Connection connection;
+                while ((connection = answered.poll()) != null)
+                    serve(connection, false);
+                var keys = selector.selectedKeys();
+                for (var key : keys) {
+                    if (key.isValid() && key.isAcceptable()) accept();
+                    else serve((Connection) key.attachment(), key.isValid() && key.isReadable());
+                }
+                keys.clear();
+            }
+        } catch (IOException e) {
+            // Селектор или слушающий сокет сломан, дальше работать нельзя
+        } finally {
+            commands.shutdownNow();
+            for (var key : selector.keys())
+                closeQuietly(key.channel());
+            closeQuietly(selector);
+        }
+    }
+
+    /**
+     * Ошибка одного соединения не останавливает сервер: его сокет закрывается, остальные продолжают работать.
+     * Исключение выходит наружу, только если закрыт сам слушающий сокет
+     */
+    private void accept() throws IOException {
+        while (true) {
+            SocketChannel channel;
+            try {
+                channel = serverChannel.accept();
+            } catch (ClosedChannelException e) {
+                throw e;
+            } catch (IOException e) {
+                // Кончились дескрипторы или клиент оборвал соединение до accept: попробуем на следующем select
+                return;
+            }
+            if (channel == null) return;
+            try {
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                var connection = new Connection(channel);
+                connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+            } catch (IOException e) {
+                closeQuietly(channel);
+            }
+        }
+    }
+
+    private void serve(Connection connection, boolean readable) {
+        try {
+            if (!connection.key.isValid()) return;
+            if (connection.answer != null) resume(connection);
+            if (readable) read(connection);
+            update(connection);
+        } catch (IOException | CancelledKeyException e) {
+            // Клиент отключился, остальные соединения продолжают работать
+            disconnect(connection);
+        } catch (RuntimeException e) {
+            // Ошибка статистики рвет только это соединение, а не весь сервер
+            batch.clear();
+            disconnect(connection);
+        }
+    }
+
+    private void read(Connection connection) throws IOException {
+        input.clear();
+        if (connection.channel.read(input) < 0) {
+            // Последняя строка может прийти без перевода строки
+            if (connection.partialSize > 0)
+                line(connection, connection.takePartial(input.array(), 0, 0));
+            acknowledge(connection);
+            connection.closing = true;
+            return;
+        }
+
+        process(connection, input.array(), 0, input.position());
+    }
+
+    /**
+     * Разбирает bytes[from, to) на строки. Если команда ушла в пул, остаток ждет ее ответа в unread
+     */
+    private void process(Connection connection, byte[] bytes, int from, int to) {
+        int start = from;
+        for (int i = from; i < to && !connection.closing && !connection.waiting; i++) {
+            if (bytes[i] != '\n') continue;
+            line(connection, connection.partialSize == 0
+                    ? decode(bytes, start, i)
+                    : connection.takePartial(bytes, start, i));
+            start = i + 1;
+        }
+        if (connection.waiting) {
+            if (start < to) connection.unread = Arrays.copyOfRange(bytes, start, to);
+        } else if (!connection.closing && start < to) {
+            if (connection.partialSize + to - start > MAX_LINE) {
+                acknowledge(connection);
+                send(connection, "ERR строка длиннее " + MAX_LINE + " байт\n");
+                connection.closing = true;
+                return;
+            }
+            connection.appendPartial(bytes, start, to);
+        }
+        acknowledge(connection);
+    }
+
+    /**
+     * Отправляет ответ команды и дочитывает строки, пришедшие после нее
+     */
+    private void resume(Connection connection) {
+        send(connection, connection.answer);
+        connection.answer = null;
+        connection.waiting = false;
+        var unread = connection.unread;
+        connection.unread = null;
+        if (unread != null) process(connection, unread, 0, unread.length);
+    }
+
+    private void line(Connection connection, String line) {
+        if (line.startsWith("/") && !line.startsWith("//")) {
+            acknowledge(connection);
+            command(connection, line);
+            return;
+        }
+        batch.add(line.startsWith("/") ? line.substring(1) : line);
+        if (++connection.unacknowledged == MAX_BATCH)
+            acknowledge(connection);
+    }
+
+    private void command(Connection connection, String line) {
+        if (line.equals("/quit")) {
+            connection.closing = true;
+            return;
+        }
+        if (line.startsWith("/top ")) {
+            int n;
+            try {
+                n = Integer.parseInt(line.substring(5).trim());
+            } catch (NumberFormatException e) {
+                n = -1;
+            }
+            if (n < 0 || n > MAX_TOP) {
+                send(connection, "ERR N должно быть от 0 до " + MAX_TOP + ": " + line.substring(5) + "\n");
+                return;
+            }
+            connection.waiting = true;
+            int limit = n;
+            commands.execute(() -> {
+                connection.answer = top(limit);
+                answered.add(connection);
+                selector.wakeup();
+            });
+            return;
+        }
+        send(connection, "ERR неизвестная команда: " + line + "\n");
+    }
+
+    /**
+     * Выполняется в пуле commands
+     */
+    private String top(int n) {
+        List<WordCount> top;
+        try {
+            top = statistics.getTop(n);
+        } catch (RuntimeException e) {
+            return "ERR " + e + "\n";
+        }
+        var response = new StringBuilder("TOP ").append(top.size()).append('\n');
+        for (var wordCount : top)
+            response.append(wordCount.getCount()).append(' ').append(wordCount.getWord()).append('\n');
+        return response.toString();
+    }
+
+    private void acknowledge(Connection connection) {
+        if (!batch.isEmpty()) {
+            statistics.addWords(batch);
+            batch.clear();
+        }
+        if (connection.unacknowledged > 0) {
+            send(connection, "OK " + connection.unacknowledged + "\n");
+            connection.unacknowledged = 0;
+        }
+    }
+
+    private void send(Connection connection, String text) {
+        var bytes = text.getBytes(StandardCharsets.UTF_8);
+        var output = connection.output;
+        if (output.remaining() < bytes.length) {
+            output = ByteBuffer.allocate(Math.max(output.capacity() * 2, output.position() + bytes.length))
+                    .put(output.flip());
+            connection.output = output;
+        }
+        output.put(bytes);
+    }
+
+    /**
+     * Отправляет, сколько примет сокет, и решает, чего ждать от соединения дальше
+     */
+    private void update(Connection connection) throws IOException {
+        var output = connection.output;
+        if (output.position() > 0) {
+            output.flip();
+            connection.channel.write(output);
+            output.compact();
+        }
+        int pending = output.position();
+        if (pending == 0 && connection.closing) {
+            disconnect(connection);
+            return;
+        }
+        int ops = pending > 0 ? SelectionKey.OP_WRITE : 0;
+        if (!connection.closing && !connection.waiting && pending < MAX_PENDING_OUTPUT)
+            ops |= SelectionKey.OP_READ;
+        connection.key.interestOps(ops);
+    }
+
+    private void disconnect(Connection connection) {
+        if (connection.key != null) connection.key.cancel();
+        closeQuietly(connection.channel);
+    }
+
+    private static String decode(byte[] bytes, int from, int to) {
+        if (to > from && bytes[to - 1] == '\r') to--;
+        return new String(bytes, from, to - from, StandardCharsets.UTF_8);
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            // Закрываем при ошибке или остановке, сообщать уже некому
+        }
+    }
+
+    private static final class Connection {
+        private final SocketChannel channel;
+        private SelectionKey key;
+        private ByteBuffer output = ByteBuffer.allocate(256);
+        private byte[] partial = new byte[0];
+        private int partialSize;
+        private int unacknowledged;
+        private boolean closing;
+        // waiting: "/top" считается в пуле; answer передается в поток селектора через очередь answered
+        private boolean waiting;
+        private byte[] unread;
+        private String answer;
+
+        Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        void appendPartial(byte[] bytes, int from, int to) {
+            if (partialSize + to - from > partial.length)
+                partial = Arrays.copyOf(partial, Math.max(partial.length * 2, partialSize + to - from));
+            System.arraycopy(bytes, from, partial, partialSize, to - from);
+            partialSize += to - from;
+        }
+
+        /**
+         * Строка из начала, пришедшего прошлыми кусками, и bytes[from, to)
+         */
+        String takePartial(byte[] bytes, int from, int to) {
+            appendPartial(bytes, from, to);
+            var line = decode(partial, 0, partialSize);
+            partialSize = 0;
+            if (partial.length > 4096) partial = new byte[0];
+            return line;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package ru.kontur.courses;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class AddWordsTest {
+    private static final String[] words = {"abc", "ABC", "  ", "", "12345678901", "Ёжик", "          a", "def"};
+
+    static Stream<Arguments> implementations() {
+        return Stream.of(
+                Arguments.of("reference", (WordStatisticFactory) WordStatisticImpl::new),
+                Arguments.of("default methods", (WordStatisticFactory) BucketWordStatistics::new)
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("implementations")
+    public void addWordsFromArrayCountsLikeAddWord(String name, WordStatisticFactory factory) {
+        var actual = factory.create();
+        actual.addWords(words);
+
+        assertEquals(addOneByOne(words), actual.getStatistics());
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("implementations")
+    public void addWordsFromIterableCountsLikeAddWord(String name, WordStatisticFactory factory) {
+        var builders = new ArrayList<StringBuilder>();
+        for (var word : words)
+            builders.add(new StringBuilder(word));
+        var actual = factory.create();
+        actual.addWords(builders);
+
+        assertEquals(addOneByOne(words), actual.getStatistics());
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("implementations")
+    public void addWordFromSliceCountsLikeAddWord(String name, WordStatisticFactory factory) {
+        var text = new StringBuilder();
+        var bounds = new int[words.length + 1];
+        for (int i = 0; i < words.length; i++) {
+            text.append(words[i]);
+            bounds[i + 1] = text.length();
+        }
+        var actual = factory.create();
+        for (int i = 0; i < words.length; i++)
+            actual.addWord(text, bounds[i], bounds[i + 1]);
+
+        assertEquals(addOneByOne(words), actual.getStatistics());
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("implementations")
+    public void addWordsThrowsWhenWordIsNull(String name, WordStatisticFactory factory) {
+        var statistics = factory.create();
+
+        assertThrows(IllegalArgumentException.class, () -> statistics.addWords((String[]) null));
+        assertThrows(IllegalArgumentException.class, () -> statistics.addWords(new String[]{"abc", null}));
+        assertThrows(IllegalArgumentException.class, () -> statistics.addWords(Arrays.asList("abc", null)));
+        assertThrows(IllegalArgumentException.class, () -> statistics.addWord(null, 0, 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> statistics.addWord("abc", 2, 4));
+    }
+
+    @Test
+    public void batchEntryPointsGoThroughAddWordOfSubclass() {
+        var added = new ArrayList<String>();
+        var statistics = new WordStatisticImpl() {
+            @Override
+            public void addWord(String word) {
+                added.add(word);
+                super.addWord(word);
+            }
+        };
+        var other = new WordStatisticImpl();
+        other.addWord("merged");
+
+        statistics.addWords(new String[]{"array"});
+        statistics.addWords(List.of("iterable"));
+        statistics.addWord("a slice", 2, 7);
+        statistics.addWord("weighted", 2);
+        statistics.merge(other);
+
+        assertEquals(List.of("array", "iterable", "slice", "weighted", "weighted", "merged"), added);
+    }
+
+    private static List<WordCount> addOneByOne(String[] words) {
+        var expected = new WordStatisticImpl();
+        for (var word : words)
+            expected.addWord(word);
+        return expected.getStatistics();
+    }
+}
@@ -0,0 +1,55 @@
+package ru.kontur.courses;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class CachingWordStatisticsTest {
+    private int builds;
+    private CachingWordStatistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        builds = 0;
+        statistics = new CachingWordStatistics(new WordStatisticImpl() {
+            @Override
+            public List<WordCount> getStatistics() {
+                builds++;
+                return super.getStatistics();
+            }
+        });
+    }
+
+    @Test
+    public void getStatisticsReusesSnapshotWhenNothingChanged() {
+        statistics.addWord("abc");
+
+        statistics.getStatistics();
+        statistics.getStatistics();
+        statistics.getTop(1);
+
+        assertEquals(1, builds);
+    }
+
+    @Test
+    public void getStatisticsRebuildsSnapshotAfterAddWord() {
+        statistics.addWord("abc");
+        assertEquals(List.of(new WordCount("abc", 1)), statistics.getStatistics());
+
+        statistics.addWord("abc");
+        statistics.addWords(new String[]{"def"});
+        assertEquals(List.of(new WordCount("abc", 2), new WordCount("def", 1)), statistics.getStatistics());
+        assertEquals(2, builds);
+    }
+
+    @Test
+    public void getStatisticsReturnsSameSnapshotWhenNothingChanged() {
+        statistics.addWord("abc");
+
+        assertSame(statistics.getStatistics(), statistics.getStatistics());
+    }
+}
@@ -0,0 +1,131 @@
+package ru.kontur.courses;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Замер роста времени addWord и getStatistics на входах, удваивающихся от MIN_SIZE до MAX_SIZE.
+ * Показатель степени — наклон прямой, подобранной методом наименьших квадратов к FIT_POINTS последним точкам
+ * (log n, log t): на малых входах время искажает JIT;
+ * за время входа берется лучший из прогонов, занявших вместе не меньше SAMPLE_NANOS и не меньше MIN_RUNS штук,
+ * чтобы паузы GC и соседние потоки не попадали в замер. Время — процессорное время текущего потока:
+ * на машине с одним ядром компиляция JIT и сборка мусора иначе попадают в замер. Входы небольшие, чтобы словарь помещался в кеш процессора
+ * и рост времени определялся алгоритмом, а не промахами кеша. Вход, на котором один прогон дольше BUDGET_NANOS,
+ * последний.
+ * n addWord за амортизированное O(1) дают показатель около 1, getStatistics за O(n log n) — чуть больше 1,
+ * линейный поиск на каждое слово — около 2. Реализация, исчерпавшая бюджет раньше, чем набралось FIT_POINTS
+ * входов, считается регрессией: показатель для нее не посчитать, но она уже медленная.
+ */
+final class ComplexityHarness {
+    static final double MAX_EXPONENT = 1.6;
+    static final int MIN_SIZE = 1 << 9;
+    static final int MAX_SIZE = 1 << 15;
+    static final int FIT_POINTS = 4;
+    static final long WARM_UP_NANOS = 200_000_000;
+    static final long SAMPLE_NANOS = 20_000_000;
+    static final long BUDGET_NANOS = 200_000_000;
+    static final int MIN_RUNS = 5;
+
+    private static final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+    private ComplexityHarness() {
+    }
+
+    record Measurement(int size, long addNanos, long statisticsNanos) {
+    }
+
+    record Result(String name, List<Measurement> measurements, double addWordExponent, double statisticsExponent) {
+        boolean addWordRegressed() {
+            return !(addWordExponent <= MAX_EXPONENT);
+        }
+
+        boolean statisticsRegressed() {
+            return !(statisticsExponent <= MAX_EXPONENT);
+        }
+
+        String report() {
+            var result = new StringBuilder(String.format(Locale.ROOT, "%-28s addWord n^%.2f%s  getStatistics n^%.2f%s%n",
+                    name, addWordExponent, addWordRegressed() ? " ХУЖЕ O(1)" : "",
+                    statisticsExponent, statisticsRegressed() ? " ХУЖЕ O(n log n)" : ""));
+            for (var measurement : measurements)
+                result.append(String.format(Locale.ROOT, "    n=%-8d addWord %10.3f мс  getStatistics %10.3f мс%n",
+                        measurement.size(), measurement.addNanos() / 1e6, measurement.statisticsNanos() / 1e6));
+            return result.toString();
+        }
+    }
+
+    /**
+     * Половина слов входа размера n различна, вторая половина повторяет их вразнобой
+     */
+    static Result measure(String name, WordStatisticFactory factory) {
+        // Прогрев, чтобы первые замеры не включали загрузку классов и интерпретатор
+        var warmUp = words(MIN_SIZE);
+        for (long start = System.nanoTime(); System.nanoTime() - start < WARM_UP_NANOS; )
+            run(factory, warmUp);
+
+        var measurements = new ArrayList<Measurement>();
+        for (int size = MIN_SIZE; size <= MAX_SIZE; size *= 2) {
+            var measurement = measure(factory, words(size));
+            measurements.add(measurement);
+            if (measurement.addNanos() + measurement.statisticsNanos() > BUDGET_NANOS) break;
+        }
+        return new Result(name, List.copyOf(measurements),
+                exponent(measurements, true), exponent(measurements, false));
+    }
+
+    /**
+     * Наклон в логарифмических координатах по последним FIT_POINTS замерам; NaN, если замеров меньше
+     */
+    static double exponent(List<Measurement> measurements, boolean addWord) {
+        int points = 0;
+        double sumX = 0, sumY = 0, sumXX = 0, sumXY = 0;
+        for (var measurement : measurements.subList(Math.max(0, measurements.size() - FIT_POINTS), measurements.size())) {
+            double x = Math.log(measurement.size());
+            double y = Math.log(Math.max(1, addWord ? measurement.addNanos() : measurement.statisticsNanos()));
+            points++;
+            sumX += x;
+            sumY += y;
+            sumXX += x * x;
+            sumXY += x * y;
+        }
+        if (points < FIT_POINTS) return Double.NaN;
+        return (points * sumXY - sumX * sumY) / (points * sumXX - sumX * sumX);
+    }
+
+    private static String[] words(int size) {
+        int distinct = size / 2;
+        var words = new String[size];
+        for (int i = 0; i < distinct; i++)
+            words[i] = "w" + i;
+        for (int i = distinct; i < size; i++)
+            words[i] = words[(int) ((long) i * 7919 % distinct)];
+        return words;
+    }
+
+    private static Measurement measure(WordStatisticFactory factory, String[] words) {
+        long addNanos = Long.MAX_VALUE;
+        long statisticsNanos = Long.MAX_VALUE;
+        long elapsed = 0;
+        for (int runs = 0; runs < MIN_RUNS || elapsed < SAMPLE_NANOS; runs++) {
+            var run = run(factory, words);
+            addNanos = Math.min(addNanos, run[0]);
+            statisticsNanos = Math.min(statisticsNanos, run[1]);
+            elapsed += run[0] + run[1];
+            if (run[0] + run[1] > BUDGET_NANOS) break;
+        }
+        return new Measurement(words.length, addNanos, statisticsNanos);
+    }
+
+    private static long[] run(WordStatisticFactory factory, String[] words) {
+        var statistics = factory.create();
+        long start = threads.getCurrentThreadCpuTime();
+        for (var word : words)
+            statistics.addWord(word);
+        long added = threads.getCurrentThreadCpuTime();
+        statistics.getStatistics();
+        return new long[]{added - start, threads.getCurrentThreadCpuTime() - added};
+    }
+}
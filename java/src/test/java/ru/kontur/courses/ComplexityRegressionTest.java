@@ -0,0 +1,59 @@
+package ru.kontur.courses;
+
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Проверка асимптотики через ComplexityHarness вместо фиксированных таймаутов.
+ * Замеры идут десятки секунд, поэтому тест помечен тегом complexity и запускается отдельной задачей complexityTest
+ */
+@Tag("complexity")
+public class ComplexityRegressionTest {
+    static final Path REPORT = Path.of("build", "reports", "complexity", "donotopen.txt");
+
+    @TestFactory
+    Stream<DynamicTest> correctImplementationsScale() {
+        return Stream.concat(Stream.of(Map.entry("WordStatisticImpl", (WordStatisticFactory) WordStatisticImpl::new)),
+                        CorrectImplementationTest.implementations.entrySet().stream().sorted(Map.Entry.comparingByKey()))
+                .map(it -> DynamicTest.dynamicTest(it.getKey(), () -> {
+                    var result = ComplexityHarness.measure(it.getKey(), it.getValue());
+
+                    assertFalse(result.addWordRegressed(), result::report);
+                    assertFalse(result.statisticsRegressed(), result::report);
+                }));
+    }
+
+    @Test
+    public void reportFlagsLinearScansAmongDonotopen() throws IOException {
+        var report = new StringBuilder();
+        var regressed = new LinkedHashMap<String, Boolean>();
+        for (var implementation : IncorrectImplementationTest.implementations) {
+            var name = implementation.getSimpleName();
+            try {
+                var result = ComplexityHarness.measure(name, WordStatisticFactory.of(implementation));
+                report.append(result.report());
+                regressed.put(name, result.addWordRegressed() || result.statisticsRegressed());
+            } catch (RuntimeException e) {
+                report.append(String.format("%-28s ошибка: %s%n", name, e));
+                regressed.put(name, false);
+            }
+        }
+        Files.createDirectories(REPORT.getParent());
+        Files.writeString(REPORT, report);
+
+        assertEquals(IncorrectImplementationTest.implementations.size(), regressed.size());
+        assertTrue(regressed.get("WordStatistics998"), report::toString);
+        assertTrue(regressed.get("WordStatistics999"), report::toString);
+    }
+}
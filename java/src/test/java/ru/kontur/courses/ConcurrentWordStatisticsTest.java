@@ -0,0 +1,72 @@
+package ru.kontur.courses;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ConcurrentWordStatisticsTest {
+    @Test
+    public void addWordCountsEveryWordWhenCalledFromManyThreads() throws Exception {
+        var statistics = new ConcurrentWordStatistics();
+        final int threads = 8;
+        final int iterations = 10000;
+        var start = new CountDownLatch(1);
+        var executor = Executors.newFixedThreadPool(threads);
+        try {
+            var futures = new ArrayList<Future<?>>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < iterations; i++) {
+                        statistics.addWord("same");
+                        statistics.addWord(String.valueOf(i % 100));
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (var future : futures)
+                future.get(10, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        var result = statistics.getStatistics();
+        assertEquals(101, result.size());
+        assertEquals(new WordCount("same", threads * iterations), result.get(0));
+        assertEquals(new WordCount("0", threads * iterations / 100), result.get(1));
+    }
+
+    @Test
+    public void readersNeverSeeWordsThatAreNotAddedYet() throws Exception {
+        var statistics = new ConcurrentWordStatistics();
+        var executor = Executors.newFixedThreadPool(2);
+        try {
+            var writer = executor.submit(() -> {
+                for (int i = 0; i < 200_000; i++)
+                    statistics.addWord(Integer.toString(i, 36));
+            });
+            var reader = executor.submit(() -> {
+                while (!writer.isDone()) {
+                    for (var wordCount : statistics.getStatistics())
+                        assertTrue(wordCount.getCount() > 0, wordCount::toString);
+                    statistics.getTop(10).forEach(it -> assertTrue(it.getCount() > 0, it::toString));
+                }
+                return null;
+            });
+            writer.get(30, TimeUnit.SECONDS);
+            reader.get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(200_000, statistics.getStatistics().size());
+    }
+}
@@ -0,0 +1,155 @@
+package ru.kontur.courses;
+
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.platform.launcher.LauncherSession;
+import org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder;
+import org.junit.platform.launcher.core.LauncherFactory;
+import org.junit.platform.launcher.listeners.SummaryGeneratingListener;
+import ru.kontur.courses.solved.WordStatisticsSolved;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClass;
+
+/**
+ * Прогоняет эталонные тесты WordStatisticsSolved на альтернативных корректных реализациях;
+ * реализация передается в запуск по имени через WordStatisticFactoryExtension
+ */
+public class CorrectImplementationTest {
+    static final Map<String, WordStatisticFactory> implementations = Map.of(
+            "BucketWordStatistics", BucketWordStatistics::new,
+            "CachingWordStatistics", () -> new CachingWordStatistics(new WordStatisticImpl()),
+            "ConcurrentWordStatistics", ConcurrentWordStatistics::new,
+            "DictionaryWordStatistics", () -> new DictionaryWordStatistics(new WordDictionary()),
+            "OffHeapWordStatistics", OffHeapWordStatistics::new,
+            "PackedWordStatistics", PackedWordStatistics::new,
+            "PrefixWordStatistics", PrefixWordStatistics::new,
+            "WindowedWordStatistics", () -> new WindowedWordStatistics(
+                    Clock.fixed(Instant.EPOCH, ZoneOffset.UTC), Duration.ofMinutes(1), 60)
+    );
+
+    @TestFactory
+    Stream<DynamicTest> stream() {
+        return implementations.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .map(it -> DynamicTest.dynamicTest(it.getKey(), () -> {
+                    var request = LauncherDiscoveryRequestBuilder.request()
+                            .selectors(selectClass(WordStatisticsSolved.class))
+                            .configurationParameter(WordStatisticFactoryExtension.FACTORY, it.getKey())
+                            .build();
+                    var listener = new SummaryGeneratingListener();
+
+                    try (LauncherSession session = LauncherFactory.openSession()) {
+                        var launcher = session.getLauncher();
+
+                        launcher.registerTestExecutionListeners(listener);
+
+                        launcher.execute(request);
+                        var summary = listener.getSummary();
+                        if (summary.getTestsFailedCount() != 0 || summary.getTestsSucceededCount() == 0) {
+                            throw new RuntimeException("Корректная имплементация не прошла тесты: "
+                                    + summary.getFailures().stream().map(f -> f.getTestIdentifier().getDisplayName()).toList());
+                        }
+                    }
+                }));
+    }
+
+    @TestFactory
+    Stream<DynamicTest> matchesReferenceOnRandomWords() {
+        var words = RandomWords.generate(new Random(42), 20000);
+        var expected = new WordStatisticImpl();
+        words.forEach(expected::addWord);
+
+        return implementations.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .map(it -> DynamicTest.dynamicTest(it.getKey(), () -> {
+                    var actual = it.getValue().create();
+                    words.forEach(actual::addWord);
+
+                    assertEquals(expected.getStatistics(), actual.getStatistics());
+                }));
+    }
+
+    @TestFactory
+    Stream<DynamicTest> getTopAndStreamAgreeWithGetStatistics() {
+        var words = RandomWords.generate(new Random(17), 5000);
+
+        return Stream.concat(Stream.of(Map.entry("WordStatisticImpl", (WordStatisticFactory) WordStatisticImpl::new)),
+                        implementations.entrySet().stream().sorted(Map.Entry.comparingByKey()))
+                .map(it -> DynamicTest.dynamicTest(it.getKey(), () -> {
+                    var statistics = it.getValue().create();
+                    words.forEach(statistics::addWord);
+                    var expected = statistics.getStatistics();
+
+                    for (var n : new int[]{0, 1, 7, expected.size(), expected.size() + 10})
+                        assertEquals(expected.subList(0, Math.min(n, expected.size())), statistics.getTop(n));
+                    assertEquals(expected, statistics.stream().toList());
+                    assertEquals(expected.subList(0, 3), statistics.stream().limit(3).toList());
+                    assertThrows(IllegalArgumentException.class, () -> statistics.getTop(-1));
+                }));
+    }
+
+    @Test
+    public void getTopAndStreamFollowOverriddenGetStatistics() {
+        var statistics = new WordStatisticImpl() {
+            @Override
+            public List<WordCount> getStatistics() {
+                var statistics = new ArrayList<>(super.getStatistics());
+                Collections.reverse(statistics);
+                return statistics;
+            }
+        };
+        statistics.addWord("a");
+        statistics.addWord("b");
+        statistics.addWord("b");
+        var expected = List.of(new WordCount("a", 1), new WordCount("b", 2));
+
+        assertEquals(expected, statistics.getStatistics());
+        assertEquals(expected.subList(0, 1), statistics.getTop(1));
+        assertEquals(expected, statistics.stream().toList());
+    }
+
+    @TestFactory
+    Stream<DynamicTest> mergeAndWeightedAddWordMatchReference() {
+        var left = RandomWords.generate(new Random(3), 3000);
+        var right = RandomWords.generate(new Random(4), 2000);
+        right.add("          a");
+        right.add("İİİİİİİİİİ");
+        var expected = new WordStatisticImpl();
+        left.forEach(expected::addWord);
+        right.forEach(expected::addWord);
+        expected.addWord("Ёж", 5);
+
+        return Stream.concat(Stream.of(Map.entry("WordStatisticImpl", (WordStatisticFactory) WordStatisticImpl::new)),
+                        implementations.entrySet().stream().sorted(Map.Entry.comparingByKey()))
+                .map(it -> DynamicTest.dynamicTest(it.getKey(), () -> {
+                    var statistics = it.getValue().create();
+                    left.forEach(statistics::addWord);
+                    var other = new WordStatisticImpl();
+                    right.forEach(other::addWord);
+
+                    statistics.merge(other);
+                    statistics.addWord("Ёж", 5);
+                    statistics.addWord("ёж", 0);
+                    statistics.addWord(" ", 3);
+
+                    assertEquals(expected.getStatistics(), statistics.getStatistics());
+                    assertThrows(IllegalArgumentException.class, () -> statistics.addWord("a", -1));
+                    assertThrows(IllegalArgumentException.class, () -> statistics.addWord(null, 1));
+                    assertThrows(IllegalArgumentException.class, () -> statistics.merge(null));
+                }));
+    }
+}
@@ -0,0 +1,80 @@
+package ru.kontur.courses;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class DictionaryWordStatisticsTest {
+    @Test
+    public void statisticsSharingDictionaryCountIndependently() {
+        var dictionary = new WordDictionary();
+        var first = new DictionaryWordStatistics(dictionary);
+        var second = new DictionaryWordStatistics(dictionary);
+
+        first.addWord("abc");
+        first.addWord("ABC");
+        second.addWord("abc");
+        second.addWord("def");
+
+        assertEquals(List.of(new WordCount("abc", 2)), first.getStatistics());
+        assertEquals(List.of(new WordCount("abc", 1), new WordCount("def", 1)), second.getStatistics());
+        assertEquals(2, dictionary.size());
+    }
+
+    @Test
+    public void mergeAddsCountsWithSameOrDifferentDictionary() {
+        var dictionary = new WordDictionary();
+        var target = new DictionaryWordStatistics(dictionary);
+        var sameDictionary = new DictionaryWordStatistics(dictionary);
+        var otherDictionary = new DictionaryWordStatistics(new WordDictionary());
+        target.addWord("abc");
+        sameDictionary.addWord("abc");
+        sameDictionary.addWord("def");
+        otherDictionary.addWord("xyz");
+        otherDictionary.addWord("def");
+
+        target.merge(sameDictionary);
+        target.merge(otherDictionary);
+
+        assertEquals(List.of(new WordCount("abc", 2), new WordCount("def", 2), new WordCount("xyz", 1)),
+                target.getStatistics());
+    }
+
+    @Test
+    public void dictionaryGivesDenseStableIdsFromManyThreads() throws Exception {
+        var dictionary = new WordDictionary();
+        var executor = Executors.newFixedThreadPool(8);
+        try {
+            var tasks = new ArrayList<Callable<int[]>>();
+            for (int t = 0; t < 8; t++) {
+                tasks.add(() -> {
+                    var ids = new int[5000];
+                    for (int i = 0; i < ids.length; i++)
+                        ids[i] = dictionary.id("w" + i);
+                    return ids;
+                });
+            }
+            var expected = executor.invokeAll(tasks).get(0).get();
+            for (Future<int[]> result : executor.invokeAll(tasks))
+                assertArrayEquals(expected, result.get());
+
+            var distinct = new HashSet<Integer>();
+            for (int i = 0; i < 5000; i++) {
+                distinct.add(dictionary.id("w" + i));
+                assertEquals("w" + i, dictionary.word(dictionary.id("w" + i)));
+            }
+            assertEquals(5000, distinct.size());
+            assertEquals(4999, distinct.stream().mapToInt(Integer::intValue).max().getAsInt());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
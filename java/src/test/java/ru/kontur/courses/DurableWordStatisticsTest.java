@@ -0,0 +1,264 @@
+package ru.kontur.courses;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DurableWordStatisticsTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    public void reopenedStatisticsMatchClosedOnes() throws IOException {
+        var expected = new WordStatisticImpl();
+        try (var statistics = DurableWordStatistics.open(directory)) {
+            for (var word : RandomWords.generate(new Random(22), 5000)) {
+                statistics.addWord(word);
+                expected.addWord(word);
+            }
+            statistics.addWord("          a");
+            expected.addWord("          a");
+            statistics.addWord("İİİİİİİİİİ", 3);
+            expected.addWord("İİİİİİİİİİ", 3);
+        }
+
+        try (var reopened = DurableWordStatistics.open(directory)) {
+            assertEquals(expected.getStatistics(), reopened.getStatistics());
+        }
+    }
+
+    @Test
+    public void committedWordsSurviveWithoutClose() throws IOException {
+        var statistics = DurableWordStatistics.open(directory, 1024, Duration.ZERO, 1 << 20, 4);
+        statistics.addWord("кот");
+        statistics.addWord("Кот");
+
+        // Экземпляр не закрыт, как при падении процесса
+        try (var reopened = DurableWordStatistics.open(directory)) {
+            assertEquals(2, reopened.getStatistics().get(0).getCount());
+        }
+    }
+
+    @Test
+    public void tornTailIsDroppedOnReplay() throws IOException {
+        try (var statistics = DurableWordStatistics.open(directory)) {
+            statistics.addWord("кот");
+        }
+        try (var files = Files.list(directory)) {
+            var segment = files.filter(it -> it.toString().endsWith(".log")).findFirst().orElseThrow();
+            Files.write(segment, new byte[]{0, 0, 0, 40, 1, 2, 3}, StandardOpenOption.APPEND);
+        }
+
+        try (var reopened = DurableWordStatistics.open(directory)) {
+            reopened.addWord("пес");
+        }
+        try (var reopened = DurableWordStatistics.open(directory)) {
+            assertEquals(2, reopened.getStatistics().size());
+        }
+    }
+
+    @Test
+    public void rotatedSegmentsAreCompactedIntoSnapshots() throws IOException {
+        var expected = new WordStatisticImpl();
+        try (var statistics = DurableWordStatistics.open(directory, 32, Duration.ZERO, 256, 3)) {
+            for (var word : RandomWords.generate(new Random(23), 3000)) {
+                statistics.addWord(word);
+                expected.addWord(word);
+            }
+        }
+
+        try (var files = Files.list(directory)) {
+            assertTrue(files.filter(it -> it.toString().endsWith(".log")).count() <= 3);
+        }
+        try (var reopened = DurableWordStatistics.open(directory)) {
+            assertEquals(expected.getStatistics(), reopened.getStatistics());
+        }
+    }
+
+    @Test
+    public void closedStatisticsRejectWords() throws IOException {
+        var statistics = DurableWordStatistics.open(directory);
+        statistics.close();
+        statistics.close();
+
+        assertThrows(IllegalStateException.class, () -> statistics.addWord("кот"));
+    }
+
+    @Test
+    public void failedGroupIsRetriedWithoutDuplicates() throws IOException {
+        var failing = new boolean[1];
+        var statistics = DurableWordStatistics.open(directory, 1024, Duration.ofHours(1), 1 << 20, 4,
+                path -> new FailingChannel(FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE), failing));
+        statistics.addWord("кот");
+        statistics.commit();
+        statistics.addWord("пес");
+        failing[0] = true;
+        // Блок дописан, но fsync не прошел: блок отрезается, а группа ждет следующего commit
+        assertThrows(IOException.class, statistics::commit);
+        failing[0] = false;
+        statistics.addWord("еж");
+        statistics.close();
+
+        try (var reopened = DurableWordStatistics.open(directory)) {
+            assertEquals(List.of(new WordCount("еж", 1), new WordCount("кот", 1), new WordCount("пес", 1)),
+                    reopened.getStatistics());
+        }
+    }
+
+    @Test
+    public void failedPeriodicCommitIsReportedToNextCaller() throws IOException {
+        var failing = new boolean[]{true};
+        var statistics = DurableWordStatistics.open(directory, 1024, Duration.ofMillis(10), 1 << 20, 4,
+                path -> new FailingChannel(FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE), failing));
+        statistics.addWord("кот");
+        // Периодическая запись падает в фоне; слова принимаются, пока об ошибке не сообщили
+        var error = assertThrows(UncheckedIOException.class, () -> {
+            while (true) {
+                Thread.sleep(10);
+                statistics.addWord("пес");
+            }
+        });
+        assertEquals("Сбой диска", error.getCause().getCause().getMessage());
+        failing[0] = false;
+        statistics.close();
+
+        try (var reopened = DurableWordStatistics.open(directory)) {
+            assertTrue(reopened.getStatistics().contains(new WordCount("кот", 1)));
+        }
+    }
+
+    @Test
+    public void interruptedCallerDoesNotCloseSegment() throws IOException {
+        try (var statistics = DurableWordStatistics.open(directory, 1024, Duration.ZERO, 1 << 20, 4)) {
+            Thread.currentThread().interrupt();
+            statistics.addWord("кот");
+            assertTrue(Thread.interrupted());
+            statistics.addWord("пес");
+        }
+        assertFalse(Thread.currentThread().isInterrupted());
+
+        try (var reopened = DurableWordStatistics.open(directory)) {
+            assertEquals(2, reopened.getStatistics().size());
+        }
+    }
+
+    /**
+     * Сегмент, у которого force падает, пока failing[0]
+     */
+    private static final class FailingChannel extends FileChannel {
+        private final FileChannel channel;
+        private final boolean[] failing;
+
+        FailingChannel(FileChannel channel, boolean[] failing) {
+            this.channel = channel;
+            this.failing = failing;
+        }
+
+        @Override
+        public void force(boolean metaData) throws IOException {
+            if (failing[0]) throw new IOException("Сбой диска");
+            channel.force(metaData);
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            return channel.read(dst);
+        }
+
+        @Override
+        public long read(ByteBuffer[] dsts, int offset, int length) throws IOException {
+            return channel.read(dsts, offset, length);
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            return channel.write(src);
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+            return channel.write(srcs, offset, length);
+        }
+
+        @Override
+        public long position() throws IOException {
+            return channel.position();
+        }
+
+        @Override
+        public FileChannel position(long newPosition) throws IOException {
+            channel.position(newPosition);
+            return this;
+        }
+
+        @Override
+        public long size() throws IOException {
+            return channel.size();
+        }
+
+        @Override
+        public FileChannel truncate(long size) throws IOException {
+            channel.truncate(size);
+            return this;
+        }
+
+        @Override
+        public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+            return channel.transferTo(position, count, target);
+        }
+
+        @Override
+        public long transferFrom(ReadableByteChannel src, long position, long count) throws IOException {
+            return channel.transferFrom(src, position, count);
+        }
+
+        @Override
+        public int read(ByteBuffer dst, long position) throws IOException {
+            return channel.read(dst, position);
+        }
+
+        @Override
+        public int write(ByteBuffer src, long position) throws IOException {
+            return channel.write(src, position);
+        }
+
+        @Override
+        public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+            return channel.map(mode, position, size);
+        }
+
+        @Override
+        public FileLock lock(long position, long size, boolean shared) throws IOException {
+            return channel.lock(position, size, shared);
+        }
+
+        @Override
+        public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+            return channel.tryLock(position, size, shared);
+        }
+
+        @Override
+        protected void implCloseChannel() throws IOException {
+            channel.close();
+        }
+    }
+}
@@ -7,61 +7,75 @@ import org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder;
 import org.junit.platform.launcher.core.LauncherFactory;
 import org.junit.platform.launcher.listeners.SummaryGeneratingListener;
 import ru.kontur.courses.donotopen.*;
-import java.lang.reflect.InvocationTargetException;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Stream;
 
 import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClass;
 
+/**
+ * Прогоняет WordStatisticsTest на каждой некорректной имплементации.
+ * Имплементация передается в запуск параметром конфигурации, поэтому запуски идут параллельно,
+ * а каждый останавливается на первом упавшем тесте.
+ */
 public class IncorrectImplementationTest {
+    static final List<Class<? extends WordStatistics>> implementations = List.of(
+            WordStatistics01.class,
+            WordStatistics02.class,
+            WordStatistics03.class,
+            WordStatistics04.class,
+            WordStatistics123.class,
+            WordStatistics998.class,
+            WordStatistics999.class,
+            WordStatisticsC.class,
+            WordStatisticsCR.class,
+            WordStatisticsE.class,
+            WordStatisticsE2.class,
+            WordStatisticsE3.class,
+            WordStatisticsE4.class,
+            WordStatisticsEN1.class,
+            WordStatisticsEN2.class,
+            WordStatisticsL2.class,
+            WordStatisticsL3.class,
+            WordStatisticsL4.class,
+            WordStatisticsQWE.class,
+            WordStatisticsSTA.class
+    );
+
     @TestFactory
     Stream<DynamicTest> stream() {
-        var request = LauncherDiscoveryRequestBuilder.request()
-                .selectors(selectClass(WordStatisticsTest.class)).build();
+        ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        var runs = implementations.stream()
+                .map(it -> CompletableFuture.supplyAsync(() -> failedTests(it), executor))
+                .toList();
+        executor.shutdown();
 
-        var listener = new SummaryGeneratingListener();
+        return Stream.iterate(0, i -> i < implementations.size(), i -> i + 1)
+                .map(i -> DynamicTest.dynamicTest(implementations.get(i).getSimpleName(), () -> {
+                    if (runs.get(i).join() == 0) {
+                        throw new RuntimeException("Некорректная имплементация прошла, не хватает тестов");
+                    }
+                }));
+    }
 
-        return Stream.of(
-                new WordStatistics01(),
-                new WordStatistics02(),
-                new WordStatistics03(),
-                new WordStatistics04(),
-                new WordStatistics123(),
-                new WordStatistics998(),
-                new WordStatistics999(),
-                new WordStatisticsC(),
-                new WordStatisticsCR(),
-                new WordStatisticsE(),
-                new WordStatisticsE2(),
-                new WordStatisticsE3(),
-                new WordStatisticsE4(),
-                new WordStatisticsEN1(),
-                new WordStatisticsEN2(),
-                new WordStatisticsL2(),
-                new WordStatisticsL3(),
-                new WordStatisticsL4(),
-                new WordStatisticsQWE(),
-                new WordStatisticsSTA()
-        ).map(it -> DynamicTest.dynamicTest(it.getClass().getSimpleName(), () -> {
-            WordStatisticsTest.wordStatisticFactory = () -> {
-                try {
-                    return it.getClass().getConstructor().newInstance();
-                } catch (InstantiationException | IllegalAccessException | InvocationTargetException |
-                         NoSuchMethodException e) {
-                    throw new RuntimeException(e);
-                }
-            };
+    private static long failedTests(Class<? extends WordStatistics> implementation) {
+        var request = LauncherDiscoveryRequestBuilder.request()
+                .selectors(selectClass(WordStatisticsTest.class))
+                .configurationParameter(WordStatisticFactoryExtension.FACTORY, implementation.getName())
+                .configurationParameter(WordStatisticFactoryExtension.FAIL_FAST, "true")
+                .build();
+        var listener = new SummaryGeneratingListener();
 
-            try (LauncherSession session = LauncherFactory.openSession()) {
-                var launcher = session.getLauncher();
+        try (LauncherSession session = LauncherFactory.openSession()) {
+            var launcher = session.getLauncher();
 
-                launcher.registerTestExecutionListeners(listener);
+            launcher.registerTestExecutionListeners(listener);
 
-                launcher.execute(request);
-                var summary = listener.getSummary();
-                if (summary.getTestsFailedCount() == 0) {
-                    throw new RuntimeException("Некорректная имплементация прошла, не хватает тестов");
-                }
-            }
-        }));
+            launcher.execute(request);
+            return listener.getSummary().getTestsFailedCount();
+        }
     }
 }
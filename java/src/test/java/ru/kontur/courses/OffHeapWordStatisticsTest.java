@@ -0,0 +1,46 @@
+package ru.kontur.courses;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class OffHeapWordStatisticsTest {
+    @Test
+    public void keepsCountsWhileTableGrows() {
+        var statistics = new OffHeapWordStatistics(0);
+        var expected = new WordStatisticImpl();
+        for (int i = 0; i < 50000; i++) {
+            var word = Integer.toString(i % 20000, 36);
+            statistics.addWord(word);
+            expected.addWord(word);
+        }
+
+        assertEquals(20000, statistics.size());
+        assertEquals(expected.getStatistics(), statistics.getStatistics());
+    }
+
+    @Test
+    public void keepsWordsLongerThanSlot() {
+        var statistics = new OffHeapWordStatistics();
+        statistics.addWord("İİİİİİİİİİ");
+        statistics.addWord("İİİİİİİİİİ");
+
+        assertEquals(List.of(new WordCount("i̇i̇i̇i̇i̇i̇i̇i̇i̇i̇", 2)), statistics.getStatistics());
+    }
+
+    @Test
+    public void closeReleasesTable() {
+        var statistics = new OffHeapWordStatistics();
+        statistics.addWord("слово");
+
+        statistics.close();
+        statistics.close();
+
+        assertEquals(0, statistics.getOffHeapBytes());
+        assertThrows(IllegalStateException.class, () -> statistics.addWord("слово"));
+        assertThrows(IllegalStateException.class, statistics::getStatistics);
+    }
+}
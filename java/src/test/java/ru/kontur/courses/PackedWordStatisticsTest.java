@@ -0,0 +1,45 @@
+package ru.kontur.courses;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PackedWordStatisticsTest {
+    @Test
+    public void getStatisticsMatchesReferenceOnWordsOutsidePackedAlphabet() {
+        var words = List.of(
+                "Ёлка", "ёЛКА", "ДЛИННОЕСЛОВОКИРИЛЛИЦЕЙ", "длинноеслово",
+                "Kelvin", "kelvin", "İstanbul", "IsTaNbUl", "ΣΟΦΟΣ", "σοφος",
+                "😀😀😀😀😀😀", "straße", "STRASSE", "tab\tword", "I", "i"
+        );
+        var expected = new WordStatisticImpl();
+        var actual = new PackedWordStatistics();
+        for (var word : words) {
+            expected.addWord(word);
+            actual.addWord(word);
+        }
+
+        assertEquals(expected.getStatistics(), actual.getStatistics());
+    }
+
+    @Test
+    public void addWordDoesNotAllocateForKnownWords() {
+        var statistics = new PackedWordStatistics();
+        var words = new String[]{"hello", "Привет", "WORLD1234567", "ёжик"};
+        for (int i = 0; i < 20000; i++)
+            statistics.addWord(words[i % words.length]);
+
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < 100000; i++)
+            statistics.addWord(words[i % words.length]);
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        assertTrue(allocated < 16 * 1024, "allocated " + allocated + " bytes");
+        assertEquals(30000, statistics.getStatistics().get(0).getCount());
+    }
+}
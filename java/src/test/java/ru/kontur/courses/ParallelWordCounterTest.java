@@ -0,0 +1,56 @@
+package ru.kontur.courses;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ParallelWordCounterTest {
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+    private final String text = String.join(" \n", RandomWords.generate(new Random(3), 20000));
+
+    @TempDir
+    Path directory;
+
+    @AfterEach
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    public void countTextGivesSameStatisticsAsSequentialAddWord() {
+        var actual = new ParallelWordCounter(pool, 100).count(text);
+
+        assertEquals(countSequentially(), actual.getStatistics());
+    }
+
+    @Test
+    public void countFileGivesSameStatisticsAsSequentialAddWord() throws IOException {
+        var file = directory.resolve("corpus.txt");
+        Files.writeString(file, text);
+
+        var actual = new ParallelWordCounter(pool, 100).count(file);
+
+        assertEquals(countSequentially(), actual.getStatistics());
+    }
+
+    @Test
+    public void countEmptyTextGivesEmptyStatistics() {
+        assertEquals(0, new ParallelWordCounter(pool, 100).count("").getStatistics().size());
+    }
+
+    private List<WordCount> countSequentially() {
+        var expected = new WordStatisticImpl();
+        for (var word : text.split("\\s+"))
+            expected.addWord(word);
+        return expected.getStatistics();
+    }
+}
@@ -0,0 +1,50 @@
+package ru.kontur.courses;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class PrefixWordStatisticsTest {
+    @Test
+    public void byPrefixMatchesFilteredStatistics() {
+        var statistics = new PrefixWordStatistics();
+        RandomWords.generate(new Random(23), 20000).forEach(statistics::addWord);
+        var all = statistics.getStatistics();
+
+        for (var prefix : new String[]{"", "a", "Б", "ab", "я1", "zz", " ", "нет"}) {
+            var lowerPrefix = prefix.toLowerCase();
+            for (var limit : new int[]{0, 1, 5, PrefixWordStatistics.CACHED_TOP, PrefixWordStatistics.CACHED_TOP + 1, 100000}) {
+                var expected = all.stream().filter(it -> it.getWord().startsWith(lowerPrefix)).limit(limit).toList();
+                assertEquals(expected, statistics.getStatisticsByPrefix(prefix, limit), prefix + " " + limit);
+            }
+        }
+    }
+
+    @Test
+    public void cachedTopsFollowNewWords() {
+        var statistics = new PrefixWordStatistics();
+        statistics.addWord("кот", 3);
+        statistics.addWord("кит", 2);
+        statistics.addWord("пес");
+        assertEquals(List.of(new WordCount("кот", 3)), statistics.getStatisticsByPrefix("к", 1));
+
+        statistics.addWord("Кит", 2);
+        statistics.addWord("корова", 10);
+
+        assertEquals(List.of(new WordCount("корова", 10), new WordCount("кит", 4), new WordCount("кот", 3)),
+                statistics.getStatisticsByPrefix("К", 5));
+        assertEquals(List.of(new WordCount("корова", 10)), statistics.getStatisticsByPrefix("ко", 1));
+    }
+
+    @Test
+    public void byPrefixRejectsInvalidArguments() {
+        var statistics = new PrefixWordStatistics();
+
+        assertThrows(IllegalArgumentException.class, () -> statistics.getStatisticsByPrefix(null, 1));
+        assertThrows(IllegalArgumentException.class, () -> statistics.getStatisticsByPrefix("a", -1));
+    }
+}
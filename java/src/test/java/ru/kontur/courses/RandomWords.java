@@ -0,0 +1,28 @@
+package ru.kontur.courses;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Случайные слова для сравнения реализаций с эталоном: короткие слова из малого алфавита часто повторяются,
+ * а регистр, пробелы, 'ё' и слова длиннее 10 символов проверяют нормализацию
+ */
+final class RandomWords {
+    private static final String ALPHABET = "aAbBcCzZ09 -аАбБяЯёЁ";
+
+    private RandomWords() {
+    }
+
+    static List<String> generate(Random random, int count) {
+        var words = new ArrayList<String>(count);
+        for (int i = 0; i < count; i++) {
+            var length = random.nextInt(random.nextInt(5) == 0 ? 14 : 4);
+            var word = new StringBuilder(length);
+            for (int j = 0; j < length; j++)
+                word.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+            words.add(word.toString());
+        }
+        return words;
+    }
+}
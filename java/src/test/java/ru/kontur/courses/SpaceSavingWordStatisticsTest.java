@@ -0,0 +1,62 @@
+package ru.kontur.courses;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SpaceSavingWordStatisticsTest {
+    @Test
+    public void getStatisticsIsExactWhenVocabularyFitsCapacity() {
+        var expected = new WordStatisticImpl();
+        var actual = new SpaceSavingWordStatistics(40);
+        for (int i = 0; i < 40; i++) {
+            // Разные частоты и регистр: вытеснений нет, поэтому результат совпадает с эталоном
+            for (int j = 0; j <= i % 7; j++) {
+                var word = (j % 2 == 0 ? "слово" : "СЛОВО") + i;
+                expected.addWord(word);
+                actual.addWord(word);
+            }
+        }
+
+        assertEquals(expected.getStatistics(), actual.getStatistics());
+        for (var wordCount : actual.getStatistics())
+            assertEquals(0, actual.getError(wordCount.getWord()));
+    }
+
+    @Test
+    public void getStatisticsContainsPlainWordCounts() {
+        var statistics = new SpaceSavingWordStatistics(2);
+        statistics.addWord("кот");
+        statistics.addWord("пес");
+        statistics.addWord("еж");
+
+        assertTrue(statistics.getStatistics().contains(new WordCount("еж", 2)));
+        assertEquals(1, statistics.getError("еж"));
+    }
+
+    @Test
+    public void getStatisticsKeepsHeavyHittersWithinErrorBounds() {
+        var random = new Random(13);
+        var statistics = new SpaceSavingWordStatistics(50);
+        var exact = new HashMap<String, Integer>();
+        for (int i = 0; i < 100000; i++) {
+            var word = random.nextInt(4) == 0 ? "heavy" + random.nextInt(5) : "tail" + random.nextInt(100000);
+            statistics.addWord(word);
+            exact.merge(word, 1, Integer::sum);
+        }
+
+        var result = statistics.getStatistics();
+        assertEquals(50, result.size());
+        for (var wordCount : result) {
+            int actual = exact.get(wordCount.getWord());
+            int error = statistics.getError(wordCount.getWord());
+            assertTrue(wordCount.getCount() - error <= actual && actual <= wordCount.getCount());
+        }
+        for (int i = 0; i < 5; i++)
+            assertTrue(result.get(i).getWord().startsWith("heavy"));
+    }
+}
@@ -0,0 +1,89 @@
+package ru.kontur.courses;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class WindowedWordStatisticsTest {
+    private static class ManualClock extends Clock {
+        private Instant now = Instant.EPOCH;
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            // Статистике нужен только instant(), зона на него не влияет
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+
+    private final ManualClock clock = new ManualClock();
+    private final WindowedWordStatistics statistics = new WindowedWordStatistics(clock, Duration.ofMinutes(1), 60);
+
+    @Test
+    public void getStatisticsCountsOnlyWordsInsideWindow() {
+        statistics.addWord("old");
+        clock.advance(Duration.ofMinutes(10));
+        statistics.addWord("new");
+        statistics.addWord("NEW");
+
+        assertEquals(List.of(new WordCount("new", 2)), statistics.getStatistics(Duration.ofMinutes(5)));
+        assertEquals(List.of(new WordCount("new", 2), new WordCount("old", 1)),
+                statistics.getStatistics(Duration.ofMinutes(11)));
+    }
+
+    @Test
+    public void getStatisticsForgetsEpochsOlderThanRetention() {
+        statistics.addWord("old");
+        clock.advance(Duration.ofMinutes(59));
+        assertEquals(List.of(new WordCount("old", 1)), statistics.getStatistics());
+
+        clock.advance(Duration.ofMinutes(1));
+        statistics.addWord("new");
+
+        assertEquals(List.of(new WordCount("new", 1)), statistics.getStatistics());
+    }
+
+    @Test
+    public void getDecayedStatisticsHalvesWeightEveryHalfLife() {
+        statistics.addWord("old");
+        statistics.addWord("old");
+        statistics.addWord("old");
+        clock.advance(Duration.ofMinutes(2));
+        statistics.addWord("new");
+        statistics.addWord("new");
+
+        var result = statistics.getDecayedStatistics(Duration.ofMinutes(1));
+
+        assertEquals("new", result.get(0).getWord());
+        assertEquals(2.0, result.get(0).getScore(), 1e-9);
+        assertEquals("old", result.get(1).getWord());
+        assertEquals(0.75, result.get(1).getScore(), 1e-9);
+    }
+
+    @Test
+    public void getStatisticsThrowsWhenWindowExceedsRetention() {
+        assertThrows(IllegalArgumentException.class, () -> statistics.getStatistics(Duration.ofHours(2)));
+        assertThrows(IllegalArgumentException.class, () -> statistics.getStatistics(Duration.ZERO));
+    }
+}
@@ -0,0 +1,68 @@
+package ru.kontur.courses;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WordCountListTest {
+    @Test
+    public void sortedByFrequencyOrdersByCountThenByWord() {
+        var list = WordCountList.sortedByFrequency(
+                new String[]{"b", "c", "a", "d", "e"}, new int[]{1, 3, 1, 3, 2}, 5);
+
+        assertEquals(List.of(new WordCount("c", 3), new WordCount("d", 3), new WordCount("e", 2),
+                new WordCount("a", 1), new WordCount("b", 1)), list);
+    }
+
+    @Test
+    public void sortedByFrequencyMatchesReferenceComparatorOnEverySortPath() {
+        var random = new Random(21);
+        for (var size : new int[]{100, FrequencySort.RADIX_THRESHOLD * 20, FrequencySort.PARALLEL_THRESHOLD + 1000}) {
+            var words = new String[size];
+            var counts = new int[size];
+            var expected = new ArrayList<WordCount>(size);
+            for (int i = 0; i < size; i++) {
+                words[i] = Integer.toString(random.nextInt(size), 36);
+                counts[i] = random.nextInt(10) == 0 ? random.nextInt(Integer.MAX_VALUE) + 1 : random.nextInt(5) + 1;
+                expected.add(new WordCount(words[i], counts[i]));
+            }
+            expected.sort(Comparator.comparing(WordCount::getCount).reversed().thenComparing(WordCount::getWord));
+
+            assertEquals(expected, WordCountList.sortedByFrequency(words, counts, size), "size " + size);
+        }
+    }
+
+    @Test
+    public void columnsAreReadableWithoutCreatingWordCounts() {
+        var list = WordCountList.sortedByFrequency(new String[]{"a", "b"}, new int[]{1, 2}, 2);
+
+        assertEquals("b", list.getWord(0));
+        assertEquals(2, list.getCount(0));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.getWord(2));
+    }
+
+    @Test
+    public void containsComparesWithPlainWordCounts() {
+        var list = WordCountList.sortedByFrequency(new String[]{"a"}, new int[]{1}, 1);
+
+        assertTrue(list.contains(new WordCount("a", 1)));
+        assertFalse(list.contains(new WordCount("a", 2)));
+        assertFalse(list.contains(new WordCount("a", 1) {
+        }));
+        assertEquals(new WordCount("a", 1).hashCode(), list.get(0).hashCode());
+    }
+
+    @Test
+    public void listIsImmutable() {
+        var list = WordCountList.sortedByFrequency(new String[]{"a"}, new int[]{1}, 1);
+
+        assertThrows(UnsupportedOperationException.class, () -> list.add(new WordCount("b", 1)));
+        assertThrows(UnsupportedOperationException.class, () -> list.set(0, new WordCount("b", 1)));
+        assertThrows(UnsupportedOperationException.class, () -> list.remove(0));
+    }
+}
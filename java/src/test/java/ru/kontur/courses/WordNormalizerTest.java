@@ -0,0 +1,68 @@
+package ru.kontur.courses;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WordNormalizerTest {
+    @Test
+    public void normalizeMatchesSubstringAndToLowerCaseForEveryChar() {
+        for (char c = 0; c < Character.MAX_VALUE; c++) {
+            var word = String.valueOf(c);
+            assertEquals(reference(word), WordNormalizer.normalize(word), "U+" + Integer.toHexString(c));
+            assertEquals(reference(word + "Ab"), WordNormalizer.normalize(new StringBuilder(word + "Ab"), 0, 3));
+        }
+    }
+
+    @Test
+    public void normalizeMatchesReferenceOnRandomWordsInDifferentLocales() {
+        var defaultLocale = Locale.getDefault();
+        try {
+            for (var locale : new String[]{"en", "ru", "tr", "lt", "el"}) {
+                Locale.setDefault(Locale.forLanguageTag(locale));
+                var random = new Random(locale.hashCode());
+                var alphabet = "aAiIzZ0 -аАёЁяЯİıΣσς😀̇ß";
+                for (int i = 0; i < 20000; i++) {
+                    var word = new StringBuilder();
+                    for (int j = random.nextInt(14); j > 0; j--)
+                        word.append(alphabet.charAt(random.nextInt(alphabet.length())));
+                    assertEquals(reference(word.toString()), WordNormalizer.normalize(word.toString()), locale + " " + word);
+                    assertEquals(reference(word.toString()), WordNormalizer.normalize(word, 0, word.length()), locale + " " + word);
+                }
+            }
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+
+    @Test
+    public void normalizeKeepsSurrogatePairCutByTruncationLikeSubstring() {
+        var word = "123456789😀";
+
+        assertEquals("123456789\uD83D", WordNormalizer.normalize(word));
+    }
+
+    @Test
+    public void normalizeReturnsSameStringWhenNothingChanges() {
+        var word = "ёжик-123";
+
+        assertSame(word, WordNormalizer.normalize(word));
+    }
+
+    @Test
+    public void normalizeReturnsNullForBlankWords() {
+        assertNull(WordNormalizer.normalize(" \t"));
+        assertNull(WordNormalizer.normalize("a  ", 1, 3));
+        assertThrows(IllegalArgumentException.class, () -> WordNormalizer.normalize(null));
+    }
+
+    private static String reference(String word) {
+        if (word.isBlank()) return null;
+        if (word.length() > 10)
+            word = word.substring(0, 10);
+        return word.toLowerCase();
+    }
+}
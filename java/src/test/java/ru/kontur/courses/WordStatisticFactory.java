@@ -2,4 +2,22 @@ package ru.kontur.courses;
 
 public interface WordStatisticFactory {
     public WordStatistics create();
+
+    /**
+     * Фабрика, вызывающая публичный конструктор без параметров
+     */
+    static WordStatisticFactory of(Class<? extends WordStatistics> type) {
+        try {
+            var constructor = type.getConstructor();
+            return () -> {
+                try {
+                    return constructor.newInstance();
+                } catch (ReflectiveOperationException e) {
+                    throw new RuntimeException(e);
+                }
+            };
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException("Нет конструктора без параметров: " + type.getName(), e);
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,54 @@
+package ru.kontur.courses;
+
+import org.junit.jupiter.api.extension.ConditionEvaluationResult;
+import org.junit.jupiter.api.extension.ExecutionCondition;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.TestInstancePostProcessor;
+import org.junit.jupiter.api.extension.TestWatcher;
+
+import java.lang.reflect.Modifier;
+
+/**
+ * Подставляет реализацию в поля WordStatisticFactory тестового класса из параметров конфигурации запуска,
+ * а не через общее статическое поле, поэтому несколько запусков могут идти параллельно.
+ * FACTORY — имя реализации из CorrectImplementationTest.implementations
+ * или полное имя класса реализации с публичным конструктором без параметров.
+ * При FAIL_FAST=true после первого упавшего теста остальные тесты этого запуска пропускаются.
+ */
+public class WordStatisticFactoryExtension implements TestInstancePostProcessor, ExecutionCondition, TestWatcher {
+    static final String FACTORY = "ru.kontur.courses.wordStatisticFactory";
+    static final String FAIL_FAST = "ru.kontur.courses.failFast";
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(WordStatisticFactoryExtension.class);
+    private static final String FAILED = "failed";
+
+    @Override
+    public void postProcessTestInstance(Object testInstance, ExtensionContext context) throws Exception {
+        var name = context.getConfigurationParameter(FACTORY);
+        if (name.isEmpty()) return;
+
+        var factory = CorrectImplementationTest.implementations.get(name.get());
+        if (factory == null)
+            factory = WordStatisticFactory.of(Class.forName(name.get()).asSubclass(WordStatistics.class));
+        for (var type = testInstance.getClass(); type != null; type = type.getSuperclass()) {
+            for (var field : type.getDeclaredFields()) {
+                if (field.getType() != WordStatisticFactory.class || Modifier.isStatic(field.getModifiers())) continue;
+                field.setAccessible(true);
+                field.set(testInstance, factory);
+            }
+        }
+    }
+
+    @Override
+    public ConditionEvaluationResult evaluateExecutionCondition(ExtensionContext context) {
+        if (context.getRoot().getStore(NAMESPACE).get(FAILED) != null)
+            return ConditionEvaluationResult.disabled("Уже есть упавший тест, " + FAIL_FAST + "=true");
+        return ConditionEvaluationResult.enabled("Упавших тестов нет");
+    }
+
+    @Override
+    public void testFailed(ExtensionContext context, Throwable cause) {
+        if (context.getConfigurationParameter(FAIL_FAST, Boolean::parseBoolean).orElse(false))
+            context.getRoot().getStore(NAMESPACE).put(FAILED, true);
+    }
+}
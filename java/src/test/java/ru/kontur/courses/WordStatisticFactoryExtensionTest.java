@@ -0,0 +1,54 @@
+package ru.kontur.courses;
+
+import org.junit.jupiter.api.Test;
+import org.junit.platform.launcher.LauncherSession;
+import org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder;
+import org.junit.platform.launcher.core.LauncherFactory;
+import org.junit.platform.launcher.listeners.SummaryGeneratingListener;
+import org.junit.platform.launcher.listeners.TestExecutionSummary;
+import ru.kontur.courses.donotopen.WordStatisticsC;
+import ru.kontur.courses.solved.WordStatisticsSolved;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClass;
+
+public class WordStatisticFactoryExtensionTest {
+    @Test
+    public void failFastSkipsTestsAfterFirstFailure() {
+        var failing = WordStatisticsC.class.getName();
+        var all = run(failing, false);
+        var failFast = run(failing, true);
+
+        assertTrue(all.getTestsFailedCount() > 1);
+        assertEquals(1, failFast.getTestsFailedCount());
+        assertEquals(all.getTestsFoundCount(), failFast.getTestsFoundCount());
+        assertTrue(failFast.getTestsSkippedCount() > 0);
+    }
+
+    @Test
+    public void factoryIsInjectedPerRun() {
+        var summary = run("CachingWordStatistics", true);
+
+        assertEquals(0, summary.getTestsFailedCount());
+        assertEquals(summary.getTestsFoundCount(), summary.getTestsSucceededCount());
+    }
+
+    private static TestExecutionSummary run(String factory, boolean failFast) {
+        var request = LauncherDiscoveryRequestBuilder.request()
+                .selectors(selectClass(WordStatisticsSolved.class))
+                .configurationParameter(WordStatisticFactoryExtension.FACTORY, factory)
+                .configurationParameter(WordStatisticFactoryExtension.FAIL_FAST, Boolean.toString(failFast))
+                .build();
+        var listener = new SummaryGeneratingListener();
+
+        try (LauncherSession session = LauncherFactory.openSession()) {
+            var launcher = session.getLauncher();
+
+            launcher.registerTestExecutionListeners(listener);
+
+            launcher.execute(request);
+            return listener.getSummary();
+        }
+    }
+}
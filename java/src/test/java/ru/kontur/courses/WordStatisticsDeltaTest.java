@@ -0,0 +1,69 @@
+package ru.kontur.courses;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class WordStatisticsDeltaTest {
+    @Test
+    public void readRestoresStatisticsWrittenFromAnyImplementation() throws IOException {
+        var original = new PackedWordStatistics();
+        RandomWords.generate(new Random(8), 5000).forEach(original::addWord);
+        original.addWord("          a");
+        original.addWord("123456789😀");
+
+        var restored = WordStatisticsDelta.read(new ByteArrayInputStream(toBytes(original)));
+
+        assertEquals(original.getStatistics(), restored.getStatistics());
+    }
+
+    @Test
+    public void mergeSortedSumsDeltasOfSeveralNodes() throws IOException {
+        var expected = new WordStatisticImpl();
+        var parts = new ArrayList<List<WordCount>>();
+        for (int node = 0; node < 5; node++) {
+            var statistics = new ConcurrentWordStatistics();
+            var words = RandomWords.generate(new Random(node), 2000);
+            words.forEach(statistics::addWord);
+            words.forEach(expected::addWord);
+            parts.add(WordStatisticsDelta.readSorted(new ByteArrayInputStream(toBytes(statistics))));
+        }
+
+        var merged = WordStatisticsDelta.mergeSorted(parts);
+
+        var byWord = expected.getStatistics().stream().sorted(Comparator.comparing(WordCount::getWord)).toList();
+        assertEquals(byWord, merged);
+    }
+
+    @Test
+    public void readRejectsCorruptedDelta() throws IOException {
+        var statistics = new WordStatisticImpl();
+        statistics.addWord("привет");
+        var bytes = toBytes(statistics);
+        bytes[bytes.length - 6] ^= 1;
+
+        assertThrows(IOException.class, () -> WordStatisticsDelta.readSorted(new ByteArrayInputStream(bytes)));
+    }
+
+    @Test
+    public void mergeSortedRejectsUnsortedPart() {
+        var part = List.of(new WordCount("b", 1), new WordCount("a", 1));
+
+        assertThrows(IllegalArgumentException.class, () -> WordStatisticsDelta.mergeSorted(List.of(part)));
+    }
+
+    private static byte[] toBytes(WordStatistics statistics) throws IOException {
+        var output = new ByteArrayOutputStream();
+        WordStatisticsDelta.write(statistics, output);
+        return output.toByteArray();
+    }
+}
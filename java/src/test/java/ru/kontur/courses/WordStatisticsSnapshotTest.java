@@ -0,0 +1,74 @@
+package ru.kontur.courses;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class WordStatisticsSnapshotTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    public void readRestoresStatisticsWrittenFromAnyImplementation() throws IOException {
+        var original = new BucketWordStatistics();
+        RandomWords.generate(new Random(5), 5000).forEach(original::addWord);
+        original.addWord("          a");
+        original.addWord("123456789😀");
+        original.addWord("\u0000x");
+        var file = directory.resolve("statistics.bin");
+
+        WordStatisticsSnapshot.write(original, file);
+        var restored = WordStatisticsSnapshot.read(file);
+
+        assertEquals(original.getStatistics(), restored.getStatistics());
+    }
+
+    @Test
+    public void readStatisticsKeepCountingLikeOriginal() throws IOException {
+        var original = new WordStatisticImpl();
+        original.addWord("          a");
+        original.addWord("Ёжик");
+        var file = directory.resolve("statistics.bin");
+        WordStatisticsSnapshot.write(original, file);
+        var restored = WordStatisticsSnapshot.read(file);
+
+        for (var word : new String[]{"ёЖИК", "           b", "new"}) {
+            original.addWord(word);
+            restored.addWord(word);
+        }
+
+        assertEquals(original.getStatistics(), restored.getStatistics());
+    }
+
+    @Test
+    public void readThrowsWhenSnapshotIsCorrupted() throws IOException {
+        var original = new WordStatisticImpl();
+        original.addWord("abc");
+        var file = directory.resolve("statistics.bin");
+        WordStatisticsSnapshot.write(original, file);
+        var bytes = Files.readAllBytes(file);
+        bytes[14] ^= 1;
+        Files.write(file, bytes);
+
+        assertThrows(IOException.class, () -> WordStatisticsSnapshot.read(file));
+    }
+
+    @Test
+    public void failedWriteLeavesNoTemporaryFile() throws IOException {
+        var original = new WordStatisticImpl();
+        original.addWord("abc");
+        var file = directory.resolve("statistics.bin");
+        Files.createDirectories(file.resolve("busy"));
+
+        assertThrows(IOException.class, () -> WordStatisticsSnapshot.write(original, file));
+        assertFalse(Files.exists(directory.resolve("statistics.bin.tmp")));
+    }
+}
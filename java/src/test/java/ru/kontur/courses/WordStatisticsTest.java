@@ -2,16 +2,17 @@ package ru.kontur.courses;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
-
+@ExtendWith(WordStatisticFactoryExtension.class)
 public class WordStatisticsTest {
     /**
      * Подставляются разные имплементации при прогоне IncorrectImplementation, по умолчанию reference
      */
-    static WordStatisticFactory wordStatisticFactory = WordStatisticImpl::new;
+    WordStatisticFactory wordStatisticFactory = WordStatisticImpl::new;
 
     private WordStatistics wordStatistic;
 
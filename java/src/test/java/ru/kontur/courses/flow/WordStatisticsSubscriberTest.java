@@ -0,0 +1,181 @@
+package ru.kontur.courses.flow;
+
+import org.junit.jupiter.api.Test;
+import ru.kontur.courses.ConcurrentWordStatistics;
+import ru.kontur.courses.WordCount;
+import ru.kontur.courses.WordStatisticImpl;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WordStatisticsSubscriberTest {
+    @Test
+    public void countsEveryPublishedWord() throws Exception {
+        var statistics = new WordStatisticImpl();
+        var expected = new WordStatisticImpl();
+        var subscriber = new WordStatisticsSubscriber(statistics, 64, 3);
+        var last = new CompletableFuture<List<WordCount>>();
+        subscriber.getRankings().subscribe(new LastItem<>(last));
+
+        try (var publisher = new SubmissionPublisher<CharSequence>()) {
+            publisher.subscribe(subscriber);
+            for (int i = 0; i < 10000; i++) {
+                var word = "w" + i % 97;
+                publisher.submit(word);
+                expected.addWord(word);
+            }
+        }
+
+        assertEquals(expected.getTop(3), last.get(10, TimeUnit.SECONDS));
+        assertEquals(expected.getStatistics(), statistics.getStatistics());
+    }
+
+    @Test
+    public void copiesReusedWordBuffers() {
+        var statistics = new WordStatisticImpl();
+        var subscriber = new WordStatisticsSubscriber(statistics, 10, 1);
+        subscriber.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+            }
+
+            @Override
+            public void cancel() {
+            }
+        });
+
+        var word = new StringBuilder();
+        for (var text : new String[]{"кот", "пес", "кот"}) {
+            word.setLength(0);
+            subscriber.onNext(word.append(text));
+        }
+        word.setLength(0);
+        subscriber.onComplete();
+
+        assertEquals(List.of(new WordCount("кот", 2), new WordCount("пес", 1)), statistics.getStatistics());
+    }
+
+    @Test
+    public void neverHasMoreThanBatchOutstanding() {
+        var requested = new AtomicLong();
+        var subscriber = new WordStatisticsSubscriber(new WordStatisticImpl(), 10, 1);
+        subscriber.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+                requested.addAndGet(n);
+            }
+
+            @Override
+            public void cancel() {
+            }
+        });
+
+        for (int i = 0; i < 95; i++) {
+            assertTrue(requested.get() > i);
+            assertTrue(requested.get() - i <= 10);
+            subscriber.onNext("слово");
+        }
+        assertEquals(100, requested.get());
+    }
+
+    @Test
+    public void publishesRankingsPeriodically() throws Exception {
+        var scheduler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            var statistics = new ConcurrentWordStatistics();
+            statistics.addWord("раз");
+            var subscriber = new WordStatisticsSubscriber(statistics, 16, 1, scheduler, Duration.ofMillis(10));
+            var first = new CompletableFuture<List<WordCount>>();
+            subscriber.getRankings().subscribe(new FirstItem<>(first));
+
+            assertEquals(List.of(new WordCount("раз", 1)), first.get(10, TimeUnit.SECONDS));
+            subscriber.close();
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Test
+    public void periodicRankingsIncludeUnfinishedBatch() throws Exception {
+        var scheduler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            var subscriber = new WordStatisticsSubscriber(new WordStatisticImpl(), 16, 1, scheduler, Duration.ofMillis(10));
+            var expected = List.of(new WordCount("кот", 2));
+            var matched = new CompletableFuture<List<WordCount>>();
+            subscriber.getRankings().subscribe(new LastItem<>(new CompletableFuture<>()) {
+                @Override
+                public void onNext(List<WordCount> item) {
+                    if (item.equals(expected)) matched.complete(item);
+                }
+            });
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+
+            subscriber.onNext("кот");
+            subscriber.onNext("кот");
+
+            assertEquals(expected, matched.get(10, TimeUnit.SECONDS));
+            subscriber.close();
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private static class LastItem<T> implements Flow.Subscriber<T> {
+        private final CompletableFuture<T> result;
+        private T last;
+
+        LastItem(CompletableFuture<T> result) {
+            this.result = result;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(T item) {
+            last = item;
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            result.completeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            result.complete(last);
+        }
+    }
+
+    private static class FirstItem<T> extends LastItem<T> {
+        private final CompletableFuture<T> result;
+
+        FirstItem(CompletableFuture<T> result) {
+            super(new CompletableFuture<>());
+            this.result = result;
+        }
+
+        @Override
+        public void onNext(T item) {
+            result.complete(item);
+        }
+    }
+}
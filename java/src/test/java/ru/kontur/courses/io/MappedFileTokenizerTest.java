@@ -0,0 +1,71 @@
+package ru.kontur.courses.io;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.kontur.courses.PackedWordStatistics;
+import ru.kontur.courses.WordStatisticImpl;
+import ru.kontur.courses.WordStatistics;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MappedFileTokenizerTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    public void tokenizeCountsLikeAddWordOnSplitText() throws IOException {
+        var text = randomText(new Random(7), 5000);
+        var file = write(text);
+
+        var expected = new WordStatisticImpl();
+        for (var word : text.split("\\s+"))
+            expected.addWord(word);
+
+        for (var tokenizer : new MappedFileTokenizer[]{
+                new MappedFileTokenizer(),
+                new MappedFileTokenizer(17, 16),
+                new MappedFileTokenizer(1000, 33)}) {
+            WordStatistics actual = new WordStatisticImpl();
+            tokenizer.tokenize(file, actual);
+            assertEquals(expected.getStatistics(), actual.getStatistics());
+
+            actual = new PackedWordStatistics();
+            tokenizer.tokenize(file, actual);
+            assertEquals(expected.getStatistics(), actual.getStatistics());
+        }
+    }
+
+    @Test
+    public void tokenizeIgnoresEmptyFile() throws IOException {
+        var statistics = new WordStatisticImpl();
+
+        new MappedFileTokenizer().tokenize(write(""), statistics);
+
+        assertTrue(statistics.getStatistics().isEmpty());
+    }
+
+    private Path write(String text) throws IOException {
+        var file = directory.resolve("words.txt");
+        Files.writeString(file, text, StandardCharsets.UTF_8);
+        return file;
+    }
+
+    private static String randomText(Random random, int words) {
+        var vocabulary = new String[]{"abc", "ABC", "Ёжик", "ёЖИК", "😀x😀", "12345678901", "очень-длинное-слово-из-кириллицы",
+                "averyveryveryveryverylongwordthatdoesnotfitintobuffer", "ß", "x"};
+        var separators = new String[]{" ", "  ", "\n", "\t", "\r\n "};
+        var text = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            text.append(vocabulary[random.nextInt(vocabulary.length)]);
+            text.append(separators[random.nextInt(separators.length)]);
+        }
+        return text.toString();
+    }
+}
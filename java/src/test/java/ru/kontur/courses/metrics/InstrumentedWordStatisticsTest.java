@@ -0,0 +1,92 @@
+package ru.kontur.courses.metrics;
+
+import org.junit.jupiter.api.Test;
+import ru.kontur.courses.WordCount;
+import ru.kontur.courses.WordStatisticImpl;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InstrumentedWordStatisticsTest {
+    @Test
+    public void metricsCountAcceptedAndRejectedWords() {
+        var statistics = new InstrumentedWordStatistics(new WordStatisticImpl());
+
+        statistics.addWord("abc");
+        statistics.addWord("  ");
+        assertThrows(IllegalArgumentException.class, () -> statistics.addWord(null));
+        statistics.addWords(new String[]{"ABC", ""});
+        statistics.addWords(List.of("def"));
+        statistics.addWord("xx \t", 2, 4);
+
+        var metrics = statistics.getMetrics();
+        assertEquals(7, metrics.getAddWordCalls());
+        assertEquals(3, metrics.getAcceptedWords());
+        assertEquals(1, metrics.getRejectedNullWords());
+        assertEquals(3, metrics.getRejectedBlankWords());
+    }
+
+    @Test
+    public void iterableIsTraversedOnceAndMergeIsCounted() {
+        var statistics = new InstrumentedWordStatistics(new WordStatisticImpl());
+        var words = List.of("abc", " ", "def").iterator();
+        Iterable<String> once = () -> words;
+        var other = new WordStatisticImpl();
+        other.addWord("abc");
+
+        statistics.addWords(once);
+        statistics.merge(other);
+
+        var metrics = statistics.getMetrics();
+        assertEquals(3, metrics.getAddWordCalls());
+        assertEquals(1, metrics.getRejectedBlankWords());
+        assertEquals(1, metrics.getMergeCalls());
+        assertEquals(List.of(new WordCount("abc", 2), new WordCount("def", 1)), statistics.getStatistics());
+    }
+
+    @Test
+    public void queriesAreMeasuredAndDelegated() {
+        var statistics = new InstrumentedWordStatistics(new WordStatisticImpl());
+        statistics.addWord("abc");
+        statistics.addWord("def");
+
+        assertEquals(List.of(new WordCount("abc", 1), new WordCount("def", 1)), statistics.getStatistics());
+        assertEquals(List.of(new WordCount("abc", 1)), statistics.getTop(1));
+        assertEquals(2, statistics.stream().count());
+
+        var metrics = statistics.getMetrics();
+        assertEquals(3, metrics.getStatisticsCalls());
+        assertEquals(3, Arrays.stream(metrics.getStatisticsLatencyHistogram()).sum());
+        assertTrue(metrics.getStatisticsLatencyPercentileNanos(99) > 0);
+    }
+
+    @Test
+    public void distinctWordsFollowInsertsWithoutQueries() {
+        var statistics = new InstrumentedWordStatistics(new WordStatisticImpl());
+        statistics.addWord("abc");
+        statistics.addWord("ABC");
+        statistics.addWord("def");
+
+        assertEquals(2, statistics.getMetrics().getDistinctWords());
+        assertEquals(0, statistics.getMetrics().getStatisticsCalls());
+    }
+
+    @Test
+    public void metricsAreReadableThroughJmx() throws Exception {
+        var statistics = new InstrumentedWordStatistics(new WordStatisticImpl());
+        statistics.addWord("abc");
+        var name = new ObjectName("ru.kontur.courses:type=WordStatistics,name=test");
+        statistics.getMetrics().register(name);
+        try {
+            var server = ManagementFactory.getPlatformMBeanServer();
+            assertEquals(1L, server.getAttribute(name, "AddWordCalls"));
+            assertEquals(1L, server.getAttribute(name, "AcceptedWords"));
+        } finally {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+        }
+    }
+}
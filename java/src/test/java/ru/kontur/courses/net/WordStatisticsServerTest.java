@@ -0,0 +1,157 @@
+package ru.kontur.courses.net;
+
+import org.junit.jupiter.api.Test;
+import ru.kontur.courses.ConcurrentWordStatistics;
+import ru.kontur.courses.WordCount;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class WordStatisticsServerTest {
+    @Test
+    public void acknowledgesWordsAndAnswersTopQueries() throws IOException {
+        var statistics = new ConcurrentWordStatistics();
+        try (var server = new WordStatisticsServer(statistics, 0);
+             var socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort())) {
+            var writer = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8);
+            var reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+
+            writer.write("Ёж\nёж\n//слеш\nкот\n/top 2\n/top x\n/quit\n");
+            writer.flush();
+
+            int acknowledged = 0;
+            String line;
+            while ((line = reader.readLine()).startsWith("OK "))
+                acknowledged += Integer.parseInt(line.substring(3));
+            assertEquals(4, acknowledged);
+            assertEquals("TOP 2", line);
+            assertEquals("2 ёж", reader.readLine());
+            assertEquals("1 /слеш", reader.readLine());
+            assertEquals("ERR", reader.readLine().substring(0, 3));
+            assertEquals(null, reader.readLine());
+        }
+    }
+
+    @Test
+    public void countsWordsOfManyPipeliningClients() throws Exception {
+        var statistics = new ConcurrentWordStatistics();
+        var clients = Executors.newFixedThreadPool(16);
+        try (var server = new WordStatisticsServer(statistics, 0)) {
+            var results = new ArrayList<Future<Integer>>();
+            for (int client = 0; client < 64; client++)
+                results.add(clients.submit(() -> send(server.getPort(), 5000)));
+            for (var result : results)
+                assertEquals(5000, result.get());
+        } finally {
+            clients.shutdownNow();
+        }
+
+        assertEquals(List.of(new WordCount("a", 64 * 2500), new WordCount("b", 64 * 2500)), statistics.getStatistics());
+    }
+
+    @Test
+    public void acknowledgesBeforeEndOfInput() throws IOException {
+        int words = 5 * WordStatisticsServer.MAX_BATCH;
+        try (var server = new WordStatisticsServer(new ConcurrentWordStatistics(), 0);
+             var socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort())) {
+            var writer = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8);
+            writer.write("слово\n".repeat(words));
+            writer.flush();
+
+            // Соединение не закрыто, и клиент больше ничего не шлет: подтверждения не ждут конца ввода
+            var reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            int acknowledged = 0;
+            while (acknowledged < words) {
+                int batch = Integer.parseInt(reader.readLine().substring(3));
+                assertTrue(batch <= WordStatisticsServer.MAX_BATCH);
+                acknowledged += batch;
+            }
+            assertEquals(words, acknowledged);
+        }
+    }
+
+    @Test
+    public void clientThatNeverReadsDoesNotStallOthers() throws Exception {
+        var statistics = new ConcurrentWordStatistics();
+        var flooder = Executors.newSingleThreadExecutor();
+        try (var server = new WordStatisticsServer(statistics, 0);
+             var silent = new Socket(InetAddress.getLoopbackAddress(), server.getPort())) {
+            // Клиент шлет слова и не читает подтверждения, пока не упрется в свой буфер отправки
+            flooder.execute(() -> {
+                try {
+                    var writer = new OutputStreamWriter(silent.getOutputStream(), StandardCharsets.UTF_8);
+                    for (int i = 0; i < 1_000_000; i++)
+                        writer.write("x\n");
+                    writer.flush();
+                } catch (IOException e) {
+                    // Сокет закрыт в конце теста
+                }
+            });
+
+            assertEquals(1000, send(server.getPort(), 1000));
+        } finally {
+            flooder.shutdownNow();
+        }
+    }
+
+    @Test
+    public void slowTopQueryDoesNotStallOthers() throws Exception {
+        var release = new CountDownLatch(1);
+        var statistics = new ConcurrentWordStatistics() {
+            @Override
+            public List<WordCount> getTop(int n) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.getTop(n);
+            }
+        };
+        try (var server = new WordStatisticsServer(statistics, 0);
+             var socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort())) {
+            var writer = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8);
+            var reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            writer.write("/top 1\nкот\n");
+            writer.flush();
+
+            assertEquals(10, send(server.getPort(), 10));
+            release.countDown();
+
+            assertEquals("TOP 1", reader.readLine());
+            assertEquals("5 a", reader.readLine());
+            assertEquals("OK 1", reader.readLine());
+        }
+    }
+
+    private static int send(int port, int words) throws IOException {
+        try (var socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            Writer writer = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8);
+            for (int i = 0; i < words; i++)
+                writer.write(i % 2 == 0 ? "a\n" : "B\n");
+            writer.flush();
+            socket.shutdownOutput();
+
+            var reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            int acknowledged = 0;
+            String line;
+            while ((line = reader.readLine()) != null)
+                acknowledged += Integer.parseInt(line.substring(3));
+            return acknowledged;
+        }
+    }
+}
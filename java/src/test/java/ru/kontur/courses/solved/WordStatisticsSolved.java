@@ -3,15 +3,18 @@ package ru.kontur.courses.solved;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.extension.ExtendWith;
 import ru.kontur.courses.WordCount;
 import ru.kontur.courses.WordStatisticFactory;
+import ru.kontur.courses.WordStatisticFactoryExtension;
 import ru.kontur.courses.WordStatisticImpl;
 import ru.kontur.courses.WordStatistics;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+@ExtendWith(WordStatisticFactoryExtension.class)
 public class WordStatisticsSolved {
-    public static WordStatisticFactory wordStatisticFactory = WordStatisticImpl::new;
+    WordStatisticFactory wordStatisticFactory = WordStatisticImpl::new;
 
     private WordStatistics wordStatistic;
 